@@ -11,6 +11,8 @@ import utilidades.TecladoIn;
 import java.io.IOException;
 
 public class VistaTerminal {
+    // cantidad de equipos que se muestran por vez al listar un rango
+    private static final int EQUIPOS_POR_PAGINA = 10;
 
     public DataHelper dataHelper;
     public FilesHelper filesHelper;
@@ -340,14 +342,26 @@ public class VistaTerminal {
             equipoA = equipoB;
             equipoB = aux;
         }
-        Lista<Equipo> equipos = dataHelper.listarEquiposPorRango(equipoA, equipoB);
+        int cantidad = dataHelper.contarEquiposPorRango(equipoA, equipoB);
+        int mostrados = 0;
+        boolean seguir = cantidad > 0;
+        System.out.println("Equipos en el rango: " + cantidad);
 
-        StringBuilder sb = new StringBuilder();
-        for (int i = 1; i <= equipos.longitud(); i++) {
-            Equipo equipo = equipos.recuperar(i);
-            sb.append(equipo).append('\n');
+        while (seguir) { // se trae de a una página, sin recorrer los equipos ya mostrados
+            Lista<Equipo> equipos = dataHelper.listarEquiposPorRango(equipoA, equipoB, mostrados, EQUIPOS_POR_PAGINA);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 1; i <= equipos.longitud(); i++) {
+                Equipo equipo = equipos.recuperar(i);
+                sb.append(equipo).append('\n');
+            }
+            System.out.println(sb.toString());
+            mostrados += equipos.longitud();
+            seguir = !equipos.estaVacia() && mostrados < cantidad;
+            if (seguir) {
+                System.out.println("Ingrese 1 para ver los siguientes equipos o -1 para terminar:");
+                seguir = TecladoIn.readLineInt() == 1;
+            }
         }
-        System.out.println(sb.toString());
         logger.mostrarEquiposPorRango(equipoA, equipoB);
     }
 
@@ -380,9 +394,10 @@ public class VistaTerminal {
                 "2) Obtener el camino que llegue de A a B pasando por la mínima cantidad de ciudades" + '\n' +
                 "3) Obtener todos los caminos posibles para llegar de A a B" + '\n' +
                 "4) Obtener  El camino más corto para llegar de A a B que pase por otra ciudad C" + '\n' +
+                "5) Obtener los K caminos más cortos para llegar de A a B" + '\n' +
                 "-1) Salir" + '\n';
         do {
-            if (option >= 1 && option <= 4)
+            if (option >= 1 && option <= 5)
                 System.out.println(sb);
             option = TecladoIn.readLineInt();
             switch (option) {
@@ -398,6 +413,9 @@ public class VistaTerminal {
                 case 4:
                     mostrarCaminoMasCortoEntreCiudad();
                     break;
+                case 5:
+                    mostrarCaminosMasCortos();
+                    break;
                 case -1:
                     System.out.println("salio");
                     break;
@@ -424,6 +442,7 @@ public class VistaTerminal {
             }
             sb.append('}');
             System.out.println(sb.toString());
+            System.out.println("Distancia: " + dataHelper.obtenerDistanciaMinima(origen, destino) + " km");
             logger.mostrarCaminoConMenorDistancia(origen, destino);
         }
     }
@@ -454,23 +473,44 @@ public class VistaTerminal {
         System.out.println("Ingrese la ciudad de destino:");
         String destino = TecladoIn.readLine().toUpperCase();
 
-        Lista<Lista<Ciudad>> viajes = dataHelper.obtenerCaminoPosibles(origen, destino);
-        if (!viajes.estaVacia()) {
-            StringBuilder sb = new StringBuilder();
-            for (int i = 1; i <= viajes.longitud(); i++) {
-                Lista<Ciudad> viaje = viajes.recuperar(i);
-                sb.append("Camino").append(i).append(": {");
-                for (int j = 1; j <= viaje.longitud(); j++) {
-                    sb.append(viaje.recuperar(j).getNombre());
-                    if (j < viaje.longitud())
-                        sb.append(" -> ");
-                }
-                sb.append('}');
+        int[] cantCaminos = {0}; // Se usa un arreglo para poder modificarlo desde el consumidor.
+        dataHelper.recorrerCaminosPosibles(origen, destino, viaje -> { // se muestra cada camino apenas se encuentra
+            cantCaminos[0]++;
+            StringBuilder sb = new StringBuilder("Camino").append(cantCaminos[0]).append(": {");
+            for (int j = 1; j <= viaje.longitud(); j++) {
+                sb.append(viaje.recuperar(j).getNombre());
+                if (j < viaje.longitud())
+                    sb.append(" -> ");
             }
             sb.append('}');
             System.out.println(sb.toString());
+        });
+        if (cantCaminos[0] > 0)
             logger.mostrarCaminoPosibles(origen, destino);
+    }
+
+    public void mostrarCaminosMasCortos() {
+        System.out.println("Ingrese la ciudad de origen:");
+        String origen = TecladoIn.readLine().toUpperCase();
+        System.out.println("Ingrese la ciudad de destino:");
+        String destino = TecladoIn.readLine().toUpperCase();
+        System.out.println("Ingrese la cantidad de caminos:");
+        int k = TecladoIn.readLineInt();
+
+        Lista<Lista<Ciudad>> viajes = dataHelper.obtenerCaminosMasCortos(origen, destino, k);
+        for (int i = 1; i <= viajes.longitud(); i++) {
+            Lista<Ciudad> viaje = viajes.recuperar(i);
+            StringBuilder sb = new StringBuilder("Camino").append(i).append(": {");
+            for (int j = 1; j <= viaje.longitud(); j++) {
+                sb.append(viaje.recuperar(j).getNombre());
+                if (j < viaje.longitud())
+                    sb.append(" -> ");
+            }
+            sb.append('}');
+            System.out.println(sb.toString());
         }
+        if (!viajes.estaVacia())
+            logger.mostrarCaminosMasCortos(origen, destino, k);
     }
 
     public void mostrarCaminoMasCortoEntreCiudad() {
@@ -0,0 +1,248 @@
+package estructuras.grafo;
+
+import estructuras.grafo.DigrafoEtiquetado.NodoAdy;
+import estructuras.grafo.DigrafoEtiquetado.NodoVert;
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recorridos exhaustivos de caminos (todos los caminos y el camino más largo) repartidos entre los hilos de un
+ * ForkJoinPool. Los primeros niveles del árbol de búsqueda se dividen en tareas independientes, una por cada
+ * adyacente, y cada tarea tiene su propio conjunto de visitados. Los resultados de las tareas se juntan en el orden
+ * de los adyacentes, así que el resultado es exactamente el mismo que el del recorrido secuencial.
+ * El grafo no se debe modificar mientras dura la búsqueda.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+class BusquedaParalela<E> {
+    // cantidad de niveles del árbol de búsqueda que se dividen en tareas
+    private static final int NIVELES_DIVISION = 3;
+
+    private final NodoVert<E> destino;
+    private final boolean porArcos;     // true: no se repiten arcos, false: no se repiten vértices
+    private final boolean buscarMayor;  // true: camino más largo, false: todos los caminos
+    private final int tamPila;
+    private final int[] primerArco;     // id del primer arco de cada vértice, los arcos se numeran por vértice
+    private final int[] maxEntrante;    // etiqueta máxima de los arcos que llegan a cada vértice
+    private final AtomicLong mejorGlobal; // mejor distancia encontrada por cualquier tarea
+
+    /**
+     * @param grafo       grafo donde se busca
+     * @param destino     vértice destino
+     * @param porArcos    true si los caminos no repiten arcos pero pueden repetir vértices, false si no repiten
+     *                    vértices
+     * @param buscarMayor true para buscar el camino más largo, false para listar todos los caminos
+     */
+    BusquedaParalela(DigrafoEtiquetado<E> grafo, NodoVert<E> destino, boolean porArcos, boolean buscarMayor) {
+        NodoAdy<E> ady;
+        int cantArcos = 0;
+
+        this.destino = destino;
+        this.porArcos = porArcos;
+        this.buscarMayor = buscarMayor;
+        this.primerArco = new int[grafo.cantVertices];
+        this.maxEntrante = new int[grafo.cantVertices];
+        this.mejorGlobal = new AtomicLong(Long.MIN_VALUE);
+        for (int id = 0; id < grafo.cantVertices; id++) {
+            primerArco[id] = cantArcos;
+            ady = grafo.verticesPorId[id].getPrimerAdy();
+            while (ady != null) {
+                cantArcos++;
+                int idAdy = ady.getVertice().getId();
+                maxEntrante[idAdy] = Math.max(maxEntrante[idAdy], ady.getEtiqueta());
+                ady = ady.getSigAdy();
+            }
+        }
+        this.tamPila = porArcos ? cantArcos + 1 : grafo.cantVertices;
+    }
+
+    /**
+     * Devuelve todos los caminos sin ciclos desde el origen al destino, en el orden del recorrido secuencial.
+     */
+    Lista<Lista<E>> caminosPosibles(ForkJoinPool pool, NodoVert<E> origen) {
+        return pool.invoke(tareaInicial(origen)).caminos;
+    }
+
+    /**
+     * Devuelve el camino de mayor distancia desde el origen al destino. Si hay más de uno devuelve el primero en el
+     * orden del recorrido secuencial.
+     */
+    Lista<E> caminoMasLargo(ForkJoinPool pool, NodoVert<E> origen) {
+        Lista<E> camino = pool.invoke(tareaInicial(origen)).mejorCamino;
+        return camino != null ? camino : new ListaDinamica<>();
+    }
+
+    private Tarea tareaInicial(NodoVert<E> origen) {
+        BitSet marcados = new BitSet();
+        long cota = 0;
+        if (!porArcos) {
+            marcados.set(origen.getId());
+            for (int max : maxEntrante)
+                cota += max;
+            cota -= maxEntrante[origen.getId()];
+        }
+        return new Tarea(new NodoVert[]{origen}, marcados, 0, cota);
+    }
+
+    /**
+     * Resultado de una tarea: los caminos encontrados en orden o el mejor camino.
+     */
+    private class Resultado {
+        private final Lista<Lista<E>> caminos = new ListaDinamica<>();
+        private Lista<E> mejorCamino = null;
+        private long mejorDist = Long.MIN_VALUE;
+
+        private void agregar(Lista<E> camino, long dist) {
+            if (buscarMayor) {
+                if (dist > mejorDist) {
+                    mejorCamino = camino;
+                    mejorDist = dist;
+                    mejorGlobal.accumulateAndGet(dist, Math::max);
+                }
+            } else {
+                caminos.insertar(camino);
+            }
+        }
+
+        private void agregar(Resultado otro) {
+            if (buscarMayor) {
+                if (otro.mejorCamino != null && otro.mejorDist > mejorDist) {
+                    mejorCamino = otro.mejorCamino;
+                    mejorDist = otro.mejorDist;
+                }
+            } else {
+                for (int i = 1; i <= otro.caminos.longitud(); i++)
+                    caminos.insertar(otro.caminos.recuperar(i));
+            }
+        }
+    }
+
+    /**
+     * Busca los caminos que empiezan con un prefijo dado. Si el prefijo es corto divide la búsqueda en una tarea por
+     * cada adyacente del último vértice, si no recorre el resto en profundidad con una pila explícita.
+     */
+    private class Tarea extends RecursiveTask<Resultado> {
+        private final NodoVert<E>[] prefijo;
+        private final BitSet marcados; // vértices o arcos usados por el prefijo, propio de la tarea
+        private final long dist;
+        private final long cota;       // cuanto más se podría sumar como máximo, sin repetir vértices
+
+        private Tarea(NodoVert<E>[] prefijo, BitSet marcados, long dist, long cota) {
+            this.prefijo = prefijo;
+            this.marcados = marcados;
+            this.dist = dist;
+            this.cota = cota;
+        }
+
+        @Override
+        protected Resultado compute() {
+            Resultado resultado = new Resultado();
+            NodoVert<E> ultimo = prefijo[prefijo.length - 1];
+
+            if (ultimo == destino) {
+                resultado.agregar(armarCamino(null, -1), dist);
+            } else if (prefijo.length <= NIVELES_DIVISION) {
+                List<Tarea> subtareas = new ArrayList<>();
+                int pos = 0;
+                NodoAdy<E> ady = ultimo.getPrimerAdy();
+                while (ady != null) {
+                    int marca = marca(ultimo, ady, pos);
+                    long nuevaDist = dist + ady.getEtiqueta();
+                    long nuevaCota = cota - (porArcos ? 0 : maxEntrante[ady.getVertice().getId()]);
+                    if (!marcados.get(marca) && sirve(nuevaDist, nuevaCota)) {
+                        BitSet nuevosMarcados = (BitSet) marcados.clone();
+                        nuevosMarcados.set(marca);
+                        NodoVert<E>[] nuevoPrefijo = Arrays.copyOf(prefijo, prefijo.length + 1);
+                        nuevoPrefijo[prefijo.length] = ady.getVertice();
+                        subtareas.add(new Tarea(nuevoPrefijo, nuevosMarcados, nuevaDist, nuevaCota));
+                    }
+                    ady = ady.getSigAdy();
+                    pos++;
+                }
+                invokeAll(subtareas);
+                for (Tarea subtarea : subtareas)
+                    resultado.agregar(subtarea.join());
+            } else {
+                recorrer(resultado);
+            }
+            return resultado;
+        }
+
+        /**
+         * Recorrido en profundidad secuencial desde el último vértice del prefijo.
+         */
+        private void recorrer(Resultado resultado) {
+            NodoVert<E>[] pila = new NodoVert[tamPila];
+            NodoAdy<E>[] sigAdy = new NodoAdy[tamPila];
+            int[] posAdy = new int[tamPila];      // posición en la lista de adyacentes de sigAdy
+            int[] marcaPila = new int[tamPila];   // vértice o arco marcado al apilar
+            long[] distPila = new long[tamPila];
+            long[] cotaPila = new long[tamPila];
+            NodoAdy<E> ady;
+            NodoVert<E> vert;
+            long nuevaDist, nuevaCota;
+            int tope = 0, marca;
+
+            pila[0] = prefijo[prefijo.length - 1];
+            sigAdy[0] = pila[0].getPrimerAdy();
+            distPila[0] = dist;
+            cotaPila[0] = cota;
+            while (tope >= 0) {
+                ady = sigAdy[tope];
+                if (pila[tope] == destino || ady == null) {
+                    if (tope > 0)
+                        marcados.clear(marcaPila[tope]);
+                    tope--;
+                } else {
+                    marca = marca(pila[tope], ady, posAdy[tope]);
+                    sigAdy[tope] = ady.getSigAdy();
+                    posAdy[tope]++;
+                    vert = ady.getVertice();
+                    nuevaDist = distPila[tope] + ady.getEtiqueta();
+                    nuevaCota = cotaPila[tope] - (porArcos ? 0 : maxEntrante[vert.getId()]);
+                    if (!marcados.get(marca) && sirve(nuevaDist, nuevaCota)) {
+                        marcados.set(marca);
+                        tope++;
+                        pila[tope] = vert;
+                        sigAdy[tope] = vert.getPrimerAdy();
+                        posAdy[tope] = 0;
+                        marcaPila[tope] = marca;
+                        distPila[tope] = nuevaDist;
+                        cotaPila[tope] = nuevaCota;
+                        if (vert == destino)
+                            resultado.agregar(armarCamino(pila, tope), nuevaDist);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Al buscar el camino más largo sin repetir vértices se descartan las ramas que ni sumando la cota llegan a la
+         * mejor distancia encontrada. Las ramas que pueden empatar se recorren, para devolver el primer camino.
+         */
+        private boolean sirve(long nuevaDist, long nuevaCota) {
+            return !buscarMayor || porArcos || nuevaDist + nuevaCota >= mejorGlobal.get();
+        }
+
+        private int marca(NodoVert<E> vert, NodoAdy<E> ady, int pos) {
+            return porArcos ? primerArco[vert.getId()] + pos : ady.getVertice().getId();
+        }
+
+        private Lista<E> armarCamino(NodoVert<E>[] pila, int tope) {
+            Lista<E> camino = new ListaDinamica<>();
+            for (NodoVert<E> vert : prefijo)
+                camino.insertar(vert.getElem());
+            for (int i = 1; i <= tope; i++)
+                camino.insertar(pila[i].getElem());
+            return camino;
+        }
+    }
+}
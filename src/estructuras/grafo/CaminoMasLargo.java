@@ -0,0 +1,243 @@
+package estructuras.grafo;
+
+import estructuras.grafo.DigrafoEtiquetado.NodoAdy;
+import estructuras.grafo.DigrafoEtiquetado.NodoVert;
+import estructuras.lineales.ListaDinamica;
+
+import java.util.Arrays;
+
+/**
+ * Búsqueda del camino de mayor distancia entre dos vértices. Si hay más de uno devuelve el primero que encuentra un
+ * recorrido en profundidad en el orden de los adyacentes, igual que el recorrido de todos los caminos.
+ * Cuando los caminos no repiten vértices y la parte del grafo que se alcanza desde el origen tiene a lo sumo
+ * UMBRAL_PROGRAMACION_DINAMICA vértices, usa programación dinámica sobre (conjunto de vértices usados, vértice
+ * actual) como Held-Karp, O(2^V V^2) sin importar cuántos caminos haya. Si no, recorre en profundidad los caminos y
+ * corta las ramas que no pueden superar al mejor camino encontrado (ramificación y poda). La cota de lo que falta
+ * sumar es, sin repetir vértices, la mayor etiqueta que llega a cada vértice sin usar, y sin repetir arcos, la suma
+ * de los arcos sin usar.
+ * El grafo no se debe modificar mientras dura la búsqueda.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+class CaminoMasLargo<E> {
+    // con más vértices la tabla ocuparía demasiada memoria, 2^(V - 1) V enteros
+    static final int UMBRAL_PROGRAMACION_DINAMICA = 18;
+    private static final int SIN_CALCULAR = Integer.MIN_VALUE;
+    private static final int SIN_CAMINO = Integer.MIN_VALUE + 1;
+
+    private final DigrafoEtiquetado<E> grafo;
+    private final NodoVert<E> origen, destino;
+    private final boolean porArcos; // true: no se repiten arcos, false: no se repiten vértices
+
+    // programación dinámica, los vértices alcanzables se numeran desde 0 (el origen)
+    private NodoVert<E>[] locales;
+    private int[][] adyacentes, etiquetas; // adyacentes de cada vértice local en el orden de la lista
+    private int[] tabla;                   // mayor distancia al destino por (conjunto usado, vértice actual)
+    private int cantLocales, localDestino;
+
+    // ramificación y poda
+    private NodoVert<E>[] pila;
+    private boolean[] marcados; // vértices o arcos usados por el camino actual
+    private int[] primerArco;   // id del primer arco de cada vértice, los arcos se numeran por vértice
+    private int[] maxEntrante;  // etiqueta máxima de los arcos que llegan a cada vértice
+    private long restante;      // cota de lo que se puede sumar sin repetir
+    private long mejorDist;
+    private ListaDinamica<E> mejorCamino;
+
+    /**
+     * @param grafo    grafo donde se busca
+     * @param origen   vértice origen
+     * @param destino  vértice destino
+     * @param porArcos true si los caminos no repiten arcos pero pueden repetir vértices, false si no repiten
+     *                 vértices
+     */
+    CaminoMasLargo(DigrafoEtiquetado<E> grafo, NodoVert<E> origen, NodoVert<E> destino, boolean porArcos) {
+        this.grafo = grafo;
+        this.origen = origen;
+        this.destino = destino;
+        this.porArcos = porArcos;
+    }
+
+    /**
+     * @return el camino más largo, vacío si no hay camino
+     */
+    ListaDinamica<E> buscar() {
+        ListaDinamica<E> camino;
+        if (!porArcos && numerarAlcanzables() <= UMBRAL_PROGRAMACION_DINAMICA)
+            camino = buscarProgramacionDinamica();
+        else
+            camino = buscarRamificacionYPoda();
+        return camino;
+    }
+
+    /**
+     * Numera los vértices alcanzables desde el origen con un recorrido en anchura.
+     *
+     * @return cantidad de vértices alcanzables
+     */
+    private int numerarAlcanzables() {
+        int[] local = new int[grafo.cantVertices];
+        NodoAdy<E> ady;
+        int idAdy;
+
+        Arrays.fill(local, -1);
+        locales = new NodoVert[grafo.cantVertices];
+        local[origen.getId()] = 0;
+        locales[0] = origen;
+        cantLocales = 1;
+        for (int frente = 0; frente < cantLocales && cantLocales <= UMBRAL_PROGRAMACION_DINAMICA; frente++) {
+            for (ady = locales[frente].getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                idAdy = ady.getVertice().getId();
+                if (local[idAdy] == -1) {
+                    local[idAdy] = cantLocales;
+                    locales[cantLocales++] = ady.getVertice();
+                }
+            }
+        }
+
+        if (cantLocales <= UMBRAL_PROGRAMACION_DINAMICA) {
+            adyacentes = new int[cantLocales][];
+            etiquetas = new int[cantLocales][];
+            for (int v = 0; v < cantLocales; v++) {
+                int cant = 0, i = 0;
+                for (ady = locales[v].getPrimerAdy(); ady != null; ady = ady.getSigAdy())
+                    cant++;
+                adyacentes[v] = new int[cant];
+                etiquetas[v] = new int[cant];
+                for (ady = locales[v].getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                    adyacentes[v][i] = local[ady.getVertice().getId()];
+                    etiquetas[v][i] = ady.getEtiqueta();
+                    i++;
+                }
+            }
+            localDestino = local[destino.getId()];
+        }
+        return cantLocales;
+    }
+
+    private ListaDinamica<E> buscarProgramacionDinamica() {
+        ListaDinamica<E> camino = new ListaDinamica<>();
+
+        if (localDestino != -1) {
+            tabla = new int[(1 << (cantLocales - 1)) * cantLocales];
+            Arrays.fill(tabla, SIN_CALCULAR);
+            int conjunto = 1, v = 0, resto = mayorDistancia(conjunto, v);
+            if (resto != SIN_CAMINO) {
+                camino.insertar(origen.getElem());
+                // se elige el primer adyacente que logra la mayor distancia, como el recorrido en profundidad
+                while (v != localDestino) {
+                    int i = 0, w = -1;
+                    boolean elegido = false;
+                    while (!elegido) {
+                        w = adyacentes[v][i];
+                        if ((conjunto & 1 << w) == 0) {
+                            int resto2 = mayorDistancia(conjunto | 1 << w, w);
+                            elegido = resto2 != SIN_CAMINO && etiquetas[v][i] + resto2 == resto;
+                            if (elegido)
+                                resto = resto2;
+                        }
+                        i++;
+                    }
+                    conjunto |= 1 << w;
+                    v = w;
+                    camino.insertar(locales[v].getElem());
+                }
+            }
+        }
+        return camino;
+    }
+
+    /**
+     * @param conjunto vértices usados, incluido el origen (bit 0) y el vértice actual
+     * @param v        vértice actual
+     * @return la mayor distancia desde v al destino sin pasar por los vértices usados, SIN_CAMINO si no se llega
+     */
+    private int mayorDistancia(int conjunto, int v) {
+        int mejor;
+        if (v == localDestino) { // no se sigue después del destino
+            mejor = 0;
+        } else {
+            int pos = (conjunto >>> 1) * cantLocales + v;
+            mejor = tabla[pos];
+            if (mejor == SIN_CALCULAR) {
+                mejor = SIN_CAMINO;
+                for (int i = 0; i < adyacentes[v].length; i++) {
+                    int w = adyacentes[v][i];
+                    if ((conjunto & 1 << w) == 0) {
+                        int resto = mayorDistancia(conjunto | 1 << w, w);
+                        if (resto != SIN_CAMINO && etiquetas[v][i] + resto > mejor)
+                            mejor = etiquetas[v][i] + resto;
+                    }
+                }
+                tabla[pos] = mejor;
+            }
+        }
+        return mejor;
+    }
+
+    private ListaDinamica<E> buscarRamificacionYPoda() {
+        NodoAdy<E> ady;
+        int cantArcos = 0;
+
+        restante = 0;
+        if (porArcos) {
+            primerArco = new int[grafo.cantVertices];
+            for (int id = 0; id < grafo.cantVertices; id++) {
+                primerArco[id] = cantArcos;
+                for (ady = grafo.verticesPorId[id].getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                    cantArcos++;
+                    restante += Math.max(0, ady.getEtiqueta());
+                }
+            }
+            marcados = new boolean[cantArcos];
+            pila = new NodoVert[cantArcos + 1];
+        } else {
+            maxEntrante = new int[grafo.cantVertices];
+            for (int id = 0; id < grafo.cantVertices; id++) {
+                for (ady = grafo.verticesPorId[id].getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                    int idAdy = ady.getVertice().getId();
+                    maxEntrante[idAdy] = Math.max(maxEntrante[idAdy], ady.getEtiqueta());
+                }
+            }
+            for (int id = 0; id < grafo.cantVertices; id++) {
+                if (id != origen.getId())
+                    restante += maxEntrante[id];
+            }
+            marcados = new boolean[grafo.cantVertices];
+            marcados[origen.getId()] = true;
+            pila = new NodoVert[grafo.cantVertices];
+        }
+        mejorDist = Long.MIN_VALUE;
+        mejorCamino = new ListaDinamica<>();
+        pila[0] = origen;
+        buscarRamificacionYPoda(0, 0);
+        return mejorCamino;
+    }
+
+    private void buscarRamificacionYPoda(int tope, long dist) {
+        NodoVert<E> vertice = pila[tope];
+        if (vertice == destino) {
+            if (dist > mejorDist) {
+                mejorDist = dist;
+                mejorCamino = new ListaDinamica<>();
+                for (int i = 0; i <= tope; i++)
+                    mejorCamino.insertar(pila[i].getElem());
+            }
+        } else if (dist + restante > mejorDist) { // si no, ningún camino de esta rama puede ser mejor
+            int pos = 0;
+            for (NodoAdy<E> ady = vertice.getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                int marca = porArcos ? primerArco[vertice.getId()] + pos : ady.getVertice().getId();
+                long aporte = porArcos ? Math.max(0, ady.getEtiqueta()) : maxEntrante[marca];
+                if (!marcados[marca]) {
+                    marcados[marca] = true;
+                    restante -= aporte;
+                    pila[tope + 1] = ady.getVertice();
+                    buscarRamificacionYPoda(tope + 1, dist + ady.getEtiqueta());
+                    restante += aporte;
+                    marcados[marca] = false;
+                }
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package estructuras.grafo;
+
+import estructuras.grafo.DigrafoEtiquetado.NodoAdy;
+import estructuras.grafo.DigrafoEtiquetado.NodoVert;
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
+
+import java.util.Arrays;
+
+/**
+ * Distancias mínimas desde algunos vértices origen que se mantienen al día mientras cambia el grafo, en lugar de
+ * descartarlas y volver a hacer Dijkstra.
+ * Cuando se agrega un arco o baja una etiqueta las distancias solo pueden bajar, se propagan con Dijkstra desde el
+ * destino del arco y se detiene en los vértices que no mejoran. Cuando se quita un arco o sube una etiqueta solo
+ * cambian los vértices cuyo camino mínimo dependía de ese arco: se buscan en orden de distancia los que no tienen
+ * otro arco entrante ajustado desde un vértice no afectado, se vuelven a calcular con Dijkstra restringido a ellos
+ * y el resto del árbol queda como estaba.
+ * Cada origen guarda la versión del grafo en la que cambiaron por última vez sus caminos mínimos, así quien guarda
+ * respuestas calculadas con ellos sabe si las tiene que descartar.
+ * Cada cambio del grafo se repara en todos los orígenes, así que se mantienen como mucho maxOrigenes: al pedir uno
+ * nuevo con el máximo alcanzado se descarta el que se usó hace más tiempo.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+class CaminosMinimosDinamicos<E> {
+    private static final int INFINITO = DigrafoEtiquetado.INFINITO;
+
+    private final DigrafoEtiquetado<E> grafo;
+    private int[][] distancias;  // distancias desde cada origen por id, null si no se mantienen
+    private long[] versiones;    // versión del grafo en la que cambiaron los caminos mínimos desde cada origen
+    private boolean[] pendientes; // orígenes cuyos caminos cambiaron en la modificación que se está haciendo
+    private long[] usos;          // momento del último uso de cada origen, para descartar el menos usado
+    private long reloj;
+    private final int maxOrigenes;
+    private int cantOrigenes;
+    // estado de las reparaciones, se reutiliza entre reparaciones
+    private ColaPrioridadIndexada porVisitar;
+    private boolean[] afectados;
+    private int[] listaAfectados;
+
+    /**
+     * @param maxOrigenes cantidad máxima de orígenes cuyas distancias se mantienen a la vez
+     */
+    CaminosMinimosDinamicos(DigrafoEtiquetado<E> grafo, int maxOrigenes) {
+        int capacidad = grafo.verticesPorId.length;
+        this.grafo = grafo;
+        this.maxOrigenes = maxOrigenes;
+        this.distancias = new int[capacidad][];
+        this.versiones = new long[capacidad];
+        this.pendientes = new boolean[capacidad];
+        this.usos = new long[capacidad];
+    }
+
+    /**
+     * Devuelve las distancias desde el origen. La primera vez las calcula con Dijkstra y desde ese momento las
+     * mantiene, hasta que se descartan por haber otros maxOrigenes orígenes usados más recientemente.
+     *
+     * @return arreglo indexado por id, INFINITO si no se alcanza. Puede ser más largo que la cantidad de vértices
+     */
+    int[] distancias(NodoVert<E> origen) {
+        int id = origen.getId();
+        if (distancias[id] == null) {
+            if (cantOrigenes == maxOrigenes)
+                descartarMenosUsado();
+            distancias[id] = grafo.distanciasMinimas(origen, null);
+            versiones[id] = grafo.getVersion();
+            cantOrigenes++;
+        }
+        usos[id] = ++reloj;
+        return distancias[id];
+    }
+
+    /**
+     * @return las distancias desde el origen si se mantienen, null si no
+     */
+    int[] distanciasGuardadas(NodoVert<E> origen) {
+        int id = origen.getId();
+        if (distancias[id] != null)
+            usos[id] = ++reloj;
+        return distancias[id];
+    }
+
+    /**
+     * Deja de mantener el origen usado hace más tiempo, O(V).
+     */
+    private void descartarMenosUsado() {
+        int menosUsado = -1;
+        for (int id = 0; id < grafo.cantVertices; id++) {
+            if (distancias[id] != null && (menosUsado == -1 || usos[id] < usos[menosUsado]))
+                menosUsado = id;
+        }
+        distancias[menosUsado] = null;
+        pendientes[menosUsado] = false;
+        cantOrigenes--;
+    }
+
+    /**
+     * @return cantidad de orígenes cuyas distancias se mantienen
+     */
+    int cantidadOrigenes() {
+        return cantOrigenes;
+    }
+
+    /**
+     * @return la versión del grafo en la que cambiaron por última vez los caminos mínimos desde el origen, -1 si no
+     * se mantienen
+     */
+    long version(NodoVert<E> origen) {
+        return distancias[origen.getId()] != null ? versiones[origen.getId()] : -1;
+    }
+
+    /**
+     * Se llama al terminar cada operación que modifica el grafo con la nueva versión.
+     */
+    void confirmarCambios(long version) {
+        for (int id = 0; id < pendientes.length; id++) {
+            if (pendientes[id]) {
+                versiones[id] = version;
+                pendientes[id] = false;
+            }
+        }
+    }
+
+    /**
+     * El vértice recién insertado no se alcanza desde ningún origen.
+     */
+    void verticeAgregado(NodoVert<E> vert) {
+        int id = vert.getId();
+        if (id >= distancias.length) {
+            int capacidad = grafo.verticesPorId.length;
+            distancias = Arrays.copyOf(distancias, capacidad);
+            versiones = Arrays.copyOf(versiones, capacidad);
+            pendientes = Arrays.copyOf(pendientes, capacidad);
+            usos = Arrays.copyOf(usos, capacidad);
+        }
+        for (int origen = 0; origen < distancias.length; origen++) {
+            if (distancias[origen] != null && id >= distancias[origen].length)
+                distancias[origen] = Arrays.copyOf(distancias[origen], grafo.verticesPorId.length);
+            if (distancias[origen] != null)
+                distancias[origen][id] = INFINITO;
+        }
+    }
+
+    /**
+     * Se llama antes de quitar el vértice del índice, con los arcos todavía en el grafo. Se descartan sus
+     * distancias, se reparan los caminos que pasaban por él y se mueven las del último id a su lugar, igual que en
+     * el índice de vértices.
+     */
+    void verticeQuitado(NodoVert<E> vert) {
+        int id = vert.getId(), ultimo = grafo.cantVertices - 1;
+        int[] dist;
+
+        if (distancias[id] != null)
+            cantOrigenes--;
+        distancias[id] = null;
+        pendientes[id] = false;
+        for (int origen = 0; origen < grafo.cantVertices; origen++) {
+            dist = distancias[origen];
+            if (dist != null) {
+                if (dist[id] != INFINITO) {
+                    pendientes[origen] = true;
+                    for (NodoAdy<E> ady = vert.getPrimerAdy(); ady != null; ady = ady.getSigAdy())
+                        agregarSiAjustado(dist, origen, id, ady.getVertice().getId(), ady.getEtiqueta(), id);
+                    reparar(dist, origen, id);
+                }
+                dist[id] = dist[ultimo];
+                dist[ultimo] = INFINITO;
+            }
+        }
+        distancias[id] = distancias[ultimo];
+        versiones[id] = versiones[ultimo];
+        pendientes[id] = pendientes[ultimo];
+        usos[id] = usos[ultimo];
+        distancias[ultimo] = null;
+        pendientes[ultimo] = false;
+    }
+
+    /**
+     * El arco nuevo solo puede acortar caminos.
+     */
+    void arcoAgregado(NodoVert<E> origenArco, NodoVert<E> destinoArco, int etiqueta) {
+        for (int origen = 0; origen < grafo.cantVertices; origen++) {
+            if (distancias[origen] != null)
+                bajar(distancias[origen], origen, origenArco.getId(), destinoArco.getId(), etiqueta);
+        }
+    }
+
+    /**
+     * Solo cambian los caminos de los orígenes que usaban el arco quitado.
+     */
+    void arcoQuitado(NodoVert<E> origenArco, NodoVert<E> destinoArco, int etiqueta) {
+        for (int origen = 0; origen < grafo.cantVertices; origen++) {
+            if (distancias[origen] != null)
+                subir(distancias[origen], origen, origenArco.getId(), destinoArco.getId(), etiqueta);
+        }
+    }
+
+    /**
+     * Si la etiqueta baja es como agregar el arco con la etiqueta nueva, y si sube es como quitarlo con la anterior.
+     */
+    void etiquetaModificada(NodoVert<E> origenArco, NodoVert<E> destinoArco, int anterior, int nueva) {
+        for (int origen = 0; origen < grafo.cantVertices; origen++) {
+            if (distancias[origen] != null) {
+                if (nueva < anterior)
+                    bajar(distancias[origen], origen, origenArco.getId(), destinoArco.getId(), nueva);
+                else if (nueva > anterior)
+                    subir(distancias[origen], origen, origenArco.getId(), destinoArco.getId(), anterior);
+            }
+        }
+    }
+
+    /**
+     * Propaga la mejora por el arco u -> v con Dijkstra desde v. Si el arco queda ajustado aunque no mejore, el
+     * camino que se arma puede cambiar y el origen también cambia de versión.
+     */
+    private void bajar(int[] dist, int origen, int u, int v, int etiqueta) {
+        NodoAdy<E> ady;
+        int id, idAdy;
+        long nuevaDist;
+
+        if (dist[u] != INFINITO && (long) dist[u] + etiqueta <= dist[v]) {
+            pendientes[origen] = true;
+            if ((long) dist[u] + etiqueta < dist[v]) {
+                prepararCola();
+                dist[v] = dist[u] + etiqueta;
+                porVisitar.insertar(v, dist[v]);
+                while (!porVisitar.estaVacia()) {
+                    id = porVisitar.obtenerFrente();
+                    porVisitar.eliminarFrente();
+                    for (ady = grafo.verticesPorId[id].getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                        idAdy = ady.getVertice().getId();
+                        nuevaDist = (long) dist[id] + ady.getEtiqueta();
+                        if (nuevaDist < dist[idAdy]) {
+                            dist[idAdy] = (int) nuevaDist;
+                            porVisitar.insertar(idAdy, dist[idAdy]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Si el arco u -> v con la etiqueta dada era parte de algún camino mínimo, repara el árbol desde v.
+     */
+    private void subir(int[] dist, int origen, int u, int v, int etiqueta) {
+        if (dist[u] != INFINITO && dist[v] != INFINITO && (long) dist[u] + etiqueta == dist[v] && v != origen) {
+            pendientes[origen] = true;
+            prepararCola();
+            porVisitar.insertar(v, dist[v]);
+            reparar(dist, origen, -1);
+        }
+    }
+
+    private void agregarSiAjustado(int[] dist, int origen, int u, int v, int etiqueta, int excluido) {
+        if (v != origen && v != excluido && dist[v] != INFINITO && (long) dist[u] + etiqueta == dist[v]) {
+            prepararCola();
+            porVisitar.insertar(v, dist[v]);
+        }
+    }
+
+    /**
+     * Recalcula las distancias de los vértices que están en la cola y de los que dependen de ellos.
+     * Primero los saca en orden de distancia: un vértice no está afectado si le llega un arco ajustado desde un
+     * vértice con menor distancia que no está afectado, y si está afectado se agregan a la cola sus adyacentes por
+     * arcos ajustados. Después cada afectado toma la mejor distancia que le llega desde los no afectados y se hace
+     * Dijkstra solo entre los afectados.
+     *
+     * @param origen   id del origen de las distancias, nunca está afectado
+     * @param excluido id de un vértice que se está eliminando y no se puede usar, -1 si no hay
+     */
+    private void reparar(int[] dist, int origen, int excluido) {
+        int[][] entrantes = grafo.obtenerEntrantes();
+        int cantAfectados = 0, id, idAdy;
+        NodoAdy<E> ady;
+        long nuevaDist;
+
+        prepararCola();
+        while (!porVisitar.estaVacia()) {
+            id = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            if (!tieneOtroPadre(dist, entrantes, id, excluido)) {
+                afectados[id] = true;
+                listaAfectados[cantAfectados++] = id;
+                for (ady = grafo.verticesPorId[id].getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                    idAdy = ady.getVertice().getId();
+                    if (idAdy != origen && idAdy != excluido && !afectados[idAdy] && dist[idAdy] != INFINITO
+                            && (long) dist[id] + ady.getEtiqueta() == dist[idAdy])
+                        porVisitar.insertar(idAdy, dist[idAdy]);
+                }
+            }
+        }
+
+        for (int i = 0; i < cantAfectados; i++)
+            dist[listaAfectados[i]] = INFINITO;
+        for (int i = 0; i < cantAfectados; i++) {
+            id = listaAfectados[i];
+            for (int j = 0; j < grafo.cantidadEntrantes(id); j++) {
+                int idEntrante = entrantes[id][j];
+                if (idEntrante != excluido && !afectados[idEntrante] && dist[idEntrante] != INFINITO) {
+                    nuevaDist = (long) dist[idEntrante] + etiqueta(idEntrante, id);
+                    if (nuevaDist < dist[id])
+                        dist[id] = (int) nuevaDist;
+                }
+            }
+            if (dist[id] != INFINITO)
+                porVisitar.insertar(id, dist[id]);
+        }
+        while (!porVisitar.estaVacia()) {
+            id = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            for (ady = grafo.verticesPorId[id].getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                idAdy = ady.getVertice().getId();
+                nuevaDist = (long) dist[id] + ady.getEtiqueta();
+                if (afectados[idAdy] && nuevaDist < dist[idAdy]) {
+                    dist[idAdy] = (int) nuevaDist;
+                    porVisitar.insertar(idAdy, dist[idAdy]);
+                }
+            }
+        }
+        for (int i = 0; i < cantAfectados; i++)
+            afectados[listaAfectados[i]] = false;
+    }
+
+    /**
+     * Los vértices con menor distancia ya salieron de la cola, así que se sabe si están afectados. Los que tienen
+     * la misma distancia (arcos con etiqueta 0) no se tienen en cuenta y el vértice se recalcula de más.
+     */
+    private boolean tieneOtroPadre(int[] dist, int[][] entrantes, int id, int excluido) {
+        boolean tiene = false;
+        for (int i = 0; !tiene && i < grafo.cantidadEntrantes(id); i++) {
+            int idEntrante = entrantes[id][i];
+            tiene = idEntrante != excluido && !afectados[idEntrante] && dist[idEntrante] < dist[id]
+                    && (long) dist[idEntrante] + etiqueta(idEntrante, id) == dist[id];
+        }
+        return tiene;
+    }
+
+    /**
+     * @return la etiqueta del arco, o un valor que no ajusta ninguna distancia si el arco ya no existe
+     */
+    private long etiqueta(int idOrigen, int idDestino) {
+        NodoAdy<E> ady = grafo.verticesPorId[idOrigen].buscarAdyacente(grafo.verticesPorId[idDestino]);
+        return ady != null ? ady.getEtiqueta() : Long.MAX_VALUE / 2;
+    }
+
+    private void prepararCola() {
+        int capacidad = grafo.verticesPorId.length;
+        if (afectados == null || afectados.length < capacidad) {
+            ColaPrioridadIndexada nueva = new ColaPrioridadIndexada(capacidad);
+            if (porVisitar != null) {
+                while (!porVisitar.estaVacia()) {
+                    nueva.insertar(porVisitar.obtenerFrente(), porVisitar.obtenerPrioridadFrente());
+                    porVisitar.eliminarFrente();
+                }
+            }
+            porVisitar = nueva;
+            afectados = new boolean[capacidad];
+            listaAfectados = new int[capacidad];
+        }
+    }
+}
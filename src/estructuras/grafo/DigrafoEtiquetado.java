@@ -1,57 +1,251 @@
 package estructuras.grafo;
 
-import estructuras.lineales.Cola;
-import estructuras.lineales.ColaDinamica;
 import estructuras.lineales.Lista;
 import estructuras.lineales.ListaDinamica;
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
+    protected static final int INFINITO = Integer.MAX_VALUE;
+    public static final int SIN_LIMITE = Integer.MAX_VALUE;
+    // cada cambio del grafo repara las distancias de todos los orígenes que se mantienen, por eso se limitan
+    public static final int MAX_ORIGENES_MANTENIDOS = 16;
+    private static final int[] SIN_ENTRANTES = new int[0];
+    // a partir de esta cantidad de adyacentes el vértice guarda sus arcos en un HashMap por vértice destino
+    private static final int UMBRAL_INDICE_ADYACENTES = 16;
+
     protected NodoVert<E> inicio;
+    // cada vértice tiene un id entre 0 y cantVertices - 1, verticesPorId[id] es el nodo con ese id
+    protected NodoVert<E>[] verticesPorId;
+    protected int cantVertices;
+    // indice de los vértices por su elemento, para encontrarlos en O(1) sin recorrer la lista
+    protected HashMap<E, NodoVert<E>> verticesPorElem;
+    // arcos entrantes de cada vértice por id, se arma la primera vez que se necesita y después se actualiza con
+    // cada cambio. entrantes[id] tiene lugar de sobra, solo valen los primeros cantEntrantes[id]
+    private transient int[][] entrantes;
+    private transient int[] cantEntrantes;
+    // distancias mínimas desde los vértices que se consultaron, se reparan cuando cambia el grafo
+    private transient CaminosMinimosDinamicos<E> caminosMinimos;
+    // aumenta con cada modificación, para saber si algo calculado a partir del grafo sigue siendo válido
+    private long version;
+    // cantidad de vértices fijados por las búsquedas de caminos mínimos, para comparar algoritmos
+    protected transient long verticesFijados;
 
     public DigrafoEtiquetado() {
         this.inicio = null;
+        this.verticesPorId = new NodoVert[10];
+        this.cantVertices = 0;
+        this.verticesPorElem = new HashMap<>();
     }
 
     @Override
     public boolean insertarVertice(E elem) {
-        boolean existeVert = exiteVertice(elem);
-        if (!existeVert) inicio = new NodoVert<>(elem, inicio);
+        boolean existeVert = elem == null || exiteVertice(elem);
+        if (!existeVert) {
+            inicio = new NodoVert<>(elem, inicio);
+            agregarAlIndice(inicio);
+            grafoModificado();
+        }
         return !existeVert;
     }
 
+    /**
+     * Le asigna al vértice el siguiente id libre y lo agrega al indice por elemento.
+     *
+     * @param vert vértice recién insertado
+     */
+    protected void agregarAlIndice(NodoVert<E> vert) {
+        if (cantVertices == verticesPorId.length)
+            verticesPorId = Arrays.copyOf(verticesPorId, verticesPorId.length * 2);
+        vert.setId(cantVertices);
+        verticesPorId[cantVertices] = vert;
+        cantVertices++;
+        verticesPorElem.put(vert.getElem(), vert);
+        if (entrantes != null) {
+            if (entrantes.length < verticesPorId.length) {
+                entrantes = Arrays.copyOf(entrantes, verticesPorId.length);
+                cantEntrantes = Arrays.copyOf(cantEntrantes, verticesPorId.length);
+            }
+            entrantes[vert.getId()] = SIN_ENTRANTES;
+            cantEntrantes[vert.getId()] = 0;
+        }
+        if (caminosMinimos != null)
+            caminosMinimos.verticeAgregado(vert);
+    }
+
+    /**
+     * Quita el vértice del indice por elemento y libera su id. El vértice con el último id pasa a ocupar su lugar,
+     * así los ids siguen siendo consecutivos.
+     *
+     * @param vert vértice eliminado
+     */
+    protected void quitarDelIndice(NodoVert<E> vert) {
+        int id = vert.getId();
+        if (caminosMinimos != null)
+            caminosMinimos.verticeQuitado(vert);
+        if (entrantes != null)
+            quitarDeEntrantes(vert);
+        verticesPorElem.remove(vert.getElem());
+        cantVertices--;
+        verticesPorId[id] = verticesPorId[cantVertices];
+        verticesPorId[id].setId(id);
+        verticesPorId[cantVertices] = null;
+    }
+
+    /**
+     * Actualiza los arcos entrantes antes de quitar el vértice del índice. Los arcos que salen del vértice se
+     * quitan de los entrantes de sus destinos, y el vértice con el último id, que va a pasar a tener el id del
+     * quitado, se renombra en los entrantes de sus destinos. Los arcos que llegan al vértice se descartan con sus
+     * entrantes, por eso quitarAdyacente no los busca después. O(grado de ambos vértices) en lugar de volver a
+     * armar todo.
+     *
+     * @param vert vértice que se va a quitar
+     */
+    private void quitarDeEntrantes(NodoVert<E> vert) {
+        int id = vert.getId(), ultimo = cantVertices - 1;
+        NodoVert<E> movido = verticesPorId[ultimo];
+        NodoAdy<E> ady;
+
+        for (ady = vert.getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+            if (ady.getVertice() != vert)
+                quitarEntrante(ady.getVertice().getId(), id);
+        }
+        entrantes[id] = entrantes[ultimo];
+        cantEntrantes[id] = cantEntrantes[ultimo];
+        entrantes[ultimo] = SIN_ENTRANTES;
+        cantEntrantes[ultimo] = 0;
+        if (movido != vert) {
+            for (ady = movido.getPrimerAdy(); ady != null; ady = ady.getSigAdy()) {
+                if (ady.getVertice() != vert)
+                    cambiarEntrante(ady.getVertice() == movido ? id : ady.getVertice().getId(), ultimo, id);
+            }
+        }
+    }
+
+    private void agregarEntrante(int id, int idEntrante) {
+        if (cantEntrantes[id] == entrantes[id].length)
+            entrantes[id] = Arrays.copyOf(entrantes[id], Math.max(2, entrantes[id].length * 2));
+        entrantes[id][cantEntrantes[id]++] = idEntrante;
+    }
+
+    /**
+     * Quita una aparición del entrante y pone el último en su lugar, el orden de los entrantes no importa.
+     */
+    private void quitarEntrante(int id, int idEntrante) {
+        int pos = 0;
+        while (entrantes[id][pos] != idEntrante)
+            pos++;
+        entrantes[id][pos] = entrantes[id][--cantEntrantes[id]];
+    }
+
+    private void cambiarEntrante(int id, int idViejo, int idNuevo) {
+        int pos = 0;
+        while (entrantes[id][pos] != idViejo)
+            pos++;
+        entrantes[id][pos] = idNuevo;
+    }
+
+    /**
+     * Se llama después de cada operación que modifica los vértices o los arcos, descarta la información calculada
+     * a partir del grafo anterior. Las distancias mínimas desde cada origen ya se repararon en cada cambio, solo se
+     * les asigna la nueva versión a los orígenes cuyos caminos cambiaron.
+     */
+    protected void grafoModificado() {
+        version++;
+        if (caminosMinimos != null)
+            caminosMinimos.confirmarCambios(version);
+    }
+
+    /**
+     * Devuelve el número de versión del grafo, que aumenta cada vez que se modifican los vértices o los arcos. Sirve
+     * para saber si una copia o un índice armado a partir del grafo está desactualizado.
+     *
+     * @return la versión actual
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Devuelve los ids de los vértices que tienen un arco hacia cada vértice. Se arma en O(V + E) la primera vez
+     * y después se actualiza al agregar o quitar cada arco o vértice, en O(1) al agregar y O(grado) al quitar.
+     * Cada arreglo puede tener lugar de sobra, la cantidad de entrantes de cada vértice la da cantidadEntrantes.
+     *
+     * @return arreglo indexado por id con los ids de los vértices de los arcos entrantes
+     */
+    protected int[][] obtenerEntrantes() {
+        if (entrantes == null) {
+            int[][] nuevo = new int[verticesPorId.length][];
+            int[] cant = new int[verticesPorId.length];
+            NodoAdy<E> ady;
+            int idAdy;
+
+            for (int id = 0; id < cantVertices; id++) {
+                ady = verticesPorId[id].getPrimerAdy();
+                while (ady != null) {
+                    cant[ady.getVertice().getId()]++;
+                    ady = ady.getSigAdy();
+                }
+            }
+            for (int id = 0; id < nuevo.length; id++) {
+                nuevo[id] = cant[id] > 0 ? new int[cant[id]] : SIN_ENTRANTES;
+                cant[id] = 0;
+            }
+            for (int id = 0; id < cantVertices; id++) {
+                ady = verticesPorId[id].getPrimerAdy();
+                while (ady != null) {
+                    idAdy = ady.getVertice().getId();
+                    nuevo[idAdy][cant[idAdy]++] = id;
+                    ady = ady.getSigAdy();
+                }
+            }
+            entrantes = nuevo;
+            cantEntrantes = cant;
+        }
+        return entrantes;
+    }
+
+    /**
+     * @return la cantidad de arcos que llegan al vértice con el id, después de obtenerEntrantes
+     */
+    protected int cantidadEntrantes(int id) {
+        return cantEntrantes[id];
+    }
+
     /**
      * Busca un nodo vértice con el elemento enviado por parámetro.
      *
      * @param elem el elemento a buscar
-     * @return el nodo que contiene el elemento
+     * @return el nodo que contiene el elemento, null si no existe
      */
     protected NodoVert<E> buscarVertice(E elem) {
-        NodoVert<E> nodoVert = inicio;
-        if (elem != null) {
-            while (nodoVert != null && !nodoVert.getElem().equals(elem))
-                nodoVert = nodoVert.getSigVertice();
-        }
+        NodoVert<E> nodoVert = null;
+        if (elem != null)
+            nodoVert = verticesPorElem.get(elem);
         return nodoVert;
     }
 
     /**
-     * Busca el primer vertice que encuentra de ambos parámetros
+     * Busca alguno de los dos vertices, primero el de elem1 y si no existe el de elem2.
      *
      * @param elem1 elemento a buscar 1
      * @param elem2 elemento a buscar 2
      * @return un nodo vertice
      */
     protected NodoVert<E> buscarPrimerVertice(E elem1, E elem2) {
+        NodoVert<E> nodoVert = null;
         if (elem1 != null && elem2 != null) {
-            NodoVert<E> nodoVert = inicio;
-            while (nodoVert != null && !nodoVert.getElem().equals(elem1) && !nodoVert.getElem().equals(elem2))
-                nodoVert = nodoVert.getSigVertice();
-            return nodoVert;
-
+            nodoVert = verticesPorElem.get(elem1);
+            if (nodoVert == null)
+                nodoVert = verticesPorElem.get(elem2);
         }
-        return null;
+        return nodoVert;
     }
 
     /**
@@ -65,16 +259,8 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
         NodoVert<E>[] vertices = new NodoVert[2];
 
         if (elem1 != null && elem2 != null) {
-            NodoVert<E> nodoI = inicio; // itera sobre la lista de vertices
-
-            while (nodoI != null && (vertices[0] == null || vertices[1] == null)) {
-                if (nodoI.getElem().equals(elem1))
-                    vertices[0] = nodoI;
-                if (nodoI.getElem().equals(elem2))
-                    vertices[1] = nodoI;
-
-                nodoI = nodoI.getSigVertice();
-            }
+            vertices[0] = verticesPorElem.get(elem1);
+            vertices[1] = verticesPorElem.get(elem2);
         }
 
         return vertices;
@@ -83,19 +269,10 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
     protected NodoVert<E>[] buscarTresVertices(E elem1, E elem2, E elem3) {
         NodoVert<E>[] vertices = new NodoVert[3];
 
-        if (elem1 != null && elem2 != null) {
-            NodoVert<E> nodoI = inicio; // itera sobre la lista de vertices
-
-            while (nodoI != null && (vertices[0] == null || vertices[1] == null || vertices[2] == null)) {
-                if (nodoI.getElem().equals(elem1))
-                    vertices[0] = nodoI;
-                if (nodoI.getElem().equals(elem2))
-                    vertices[1] = nodoI;
-                if (nodoI.getElem().equals(elem3))
-                    vertices[2] = nodoI;
-
-                nodoI = nodoI.getSigVertice();
-            }
+        if (elem1 != null && elem2 != null && elem3 != null) {
+            vertices[0] = verticesPorElem.get(elem1);
+            vertices[1] = verticesPorElem.get(elem2);
+            vertices[2] = verticesPorElem.get(elem3);
         }
 
         return vertices;
@@ -114,8 +291,9 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
         boolean elimino = false;
         NodoVert<E> vert, vertAnt;
 
-        if (elem != null && inicio != null) {
+        if (elem != null && verticesPorElem.containsKey(elem)) {
             if (inicio.getElem().equals(elem)) {
+                vert = inicio;
                 inicio = inicio.getSigVertice();
                 elimino = true;
             } else {
@@ -131,13 +309,21 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
                     }
                 }
             }
-            if (elimino) eliminarAdyacentes(elem);
+            if (elimino) {
+                quitarDelIndice(vert);
+                eliminarAdyacentes(vert);
+                grafoModificado();
+            }
         }
 
         return elimino;
     }
 
-    private void eliminarAdyacentes(E vertAEliminar) {
+    /**
+     * Quita los arcos que llegan al vértice. Sin arcos entrantes hay que buscarlo en los adyacentes de cada vértice,
+     * con el índice de adyacentes en O(1) para los vértices con muchos arcos.
+     */
+    private void eliminarAdyacentes(NodoVert<E> vertAEliminar) {
         NodoVert<E> vertice = inicio;
         while (vertice != null) {
             eliminarArco(vertice, vertAEliminar);
@@ -159,53 +345,154 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
 
         if (nodoOrigen != null && nodoDestino != null) {
             if (!existeArco(nodoOrigen, nodoDestino)) {
-                nodoOrigen.setPrimerAdy(new NodoAdy<>(nodoDestino, nodoOrigen.getPrimerAdy(), etiqueta));
+                agregarArco(nodoOrigen, nodoDestino, etiqueta);
                 inserto = true;
+                grafoModificado();
             }
         }
 
         return inserto;
     }
 
+    /**
+     * Agrega el arco al principio de los adyacentes del origen, sin verificar si ya existe.
+     *
+     * @param origen   vertice origen del arco
+     * @param destino  vertice destino del arco
+     * @param etiqueta etiqueta del arco
+     * @return el nodo adyacente del arco
+     */
+    protected NodoAdy<E> agregarArco(NodoVert<E> origen, NodoVert<E> destino, int etiqueta) {
+        NodoAdy<E> ady = new NodoAdy<>(destino, origen.getPrimerAdy(), etiqueta);
+        origen.insertarAdyacente(ady);
+        if (entrantes != null)
+            agregarEntrante(destino.getId(), origen.getId());
+        if (caminosMinimos != null)
+            caminosMinimos.arcoAgregado(origen, destino, etiqueta);
+        return ady;
+    }
+
     @Override
     public boolean eliminarArco(E origen, E destino) {
-        boolean elimino = false;
-        if (origen != null && destino != null)
-            elimino = eliminarArco(buscarVertice(origen), destino) != null;
+        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
+        boolean elimino = vertices[0] != null && vertices[1] != null && eliminarArco(vertices[0], vertices[1]);
+        if (elimino)
+            grafoModificado();
         return elimino;
     }
 
     /**
-     * Quita el arco de desde el vertice origen al destino y retorna el vertice hacia donde apunta el arco eliminado.
+     * Quita el arco desde el vertice origen al destino.
+     *
+     * @param vertOrigen  vertice origen del arco
+     * @param vertDestino vertice destino del arco
+     * @return verdadero si el arco existía y falso en caso contrario
+     */
+    protected boolean eliminarArco(NodoVert<E> vertOrigen, NodoVert<E> vertDestino) {
+        NodoAdy<E> ady = vertOrigen.buscarAdyacente(vertDestino);
+        if (ady != null)
+            quitarAdyacente(vertOrigen, ady);
+        return ady != null;
+    }
+
+    /**
+     * Quita el nodo adyacente de la lista del vértice en O(1), con el enlace al adyacente anterior.
      *
      * @param vertOrigen vertice origen del arco
-     * @param destino    elemento destino del arco
-     * @return el vertice hacia donde apunta el arco eliminado
+     * @param ady        nodo adyacente del arco, tiene que estar en la lista del vértice
      */
-    protected NodoVert<E> eliminarArco(NodoVert<E> vertOrigen, E destino) {
-        NodoAdy<E> ady, adyAnt;
-        NodoVert<E> nodoVertEliminado = null;
+    protected void quitarAdyacente(NodoVert<E> vertOrigen, NodoAdy<E> ady) {
+        vertOrigen.quitarAdyacente(ady);
+        // los arcos hacia un vértice que ya se quitó del índice se repararon y se descartaron al quitarlo
+        if (estaEnElIndice(vertOrigen) && estaEnElIndice(ady.getVertice())) {
+            if (entrantes != null)
+                quitarEntrante(ady.getVertice().getId(), vertOrigen.getId());
+            if (caminosMinimos != null)
+                caminosMinimos.arcoQuitado(vertOrigen, ady.getVertice(), ady.getEtiqueta());
+        }
+    }
 
-        if (vertOrigen != null && vertOrigen.getPrimerAdy() != null) {
-            if (vertOrigen.getPrimerAdy().getVertice().getElem().equals(destino)) {
-                nodoVertEliminado = vertOrigen.getPrimerAdy().getVertice();
-                vertOrigen.setPrimerAdy(vertOrigen.getPrimerAdy().getSigAdy());
-            } else {
-                adyAnt = vertOrigen.getPrimerAdy();  // adyacente anterior a 'ady'
-                ady = vertOrigen.getPrimerAdy().getSigAdy();
+    private boolean estaEnElIndice(NodoVert<E> vert) {
+        return vert.getId() < cantVertices && verticesPorId[vert.getId()] == vert;
+    }
 
-                while (nodoVertEliminado == null && ady != null) {
-                    if (ady.getVertice().getElem().equals(destino)) {
-                        nodoVertEliminado = ady.getVertice();
-                        adyAnt.setSigAdy(ady.getSigAdy());
-                    } else {
-                        adyAnt = ady;
-                        ady = ady.getSigAdy();
-                    }
-                }
-            }
+    /**
+     * Cambia la etiqueta del arco desde el origen al destino.
+     *
+     * @param origen   elemento origen del arco
+     * @param destino  elemento destino del arco
+     * @param etiqueta nueva etiqueta
+     * @return verdadero si el arco existe y falso en caso contrario
+     */
+    public boolean modificarEtiqueta(E origen, E destino, int etiqueta) {
+        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
+        boolean modifico = vertices[0] != null && vertices[1] != null
+                && modificarEtiqueta(vertices[0], vertices[1], etiqueta);
+        if (modifico)
+            grafoModificado();
+        return modifico;
+    }
+
+    /**
+     * Cambia la etiqueta del arco y repara las distancias mínimas guardadas, sin llamar a grafoModificado.
+     *
+     * @return verdadero si el arco existe y falso en caso contrario
+     */
+    protected boolean modificarEtiqueta(NodoVert<E> origen, NodoVert<E> destino, int etiqueta) {
+        NodoAdy<E> ady = origen.buscarAdyacente(destino);
+        int anterior;
+
+        if (ady != null) {
+            anterior = ady.getEtiqueta();
+            ady.setEtiqueta(etiqueta);
+            if (caminosMinimos != null)
+                caminosMinimos.etiquetaModificada(origen, destino, anterior, etiqueta);
         }
-        return nodoVertEliminado;
+        return ady != null;
+    }
+
+    /**
+     * Guarda las distancias mínimas desde el origen a todos los vértices. Desde ese momento se mantienen al día
+     * cuando cambian los arcos o los vértices: al agregar arcos o bajar etiquetas solo se propagan las mejoras, y al
+     * quitarlos o subir etiquetas solo se recalculan los vértices cuyo camino mínimo pasaba por el arco. Las usan
+     * caminoMasCortoPasandoPor y las consultas de caminoMasCorto y distanciaMinima desde ese origen.
+     * Se mantienen como mucho MAX_ORIGENES_MANTENIDOS orígenes, contando los que usa caminoMasCortoPasandoPor. Al
+     * pasar ese máximo se deja de mantener el que se usó hace más tiempo.
+     *
+     * @param origen vertice origen
+     * @return verdadero si el vértice existe y falso en caso contrario
+     */
+    public boolean mantenerCaminosMinimos(E origen) {
+        NodoVert<E> vert = buscarVertice(origen);
+        if (vert != null)
+            obtenerCaminosMinimos().distancias(vert);
+        return vert != null;
+    }
+
+    /**
+     * Devuelve la versión del grafo en la que cambiaron por última vez los caminos mínimos desde el origen. Una
+     * respuesta calculada desde ese origen sigue siendo válida mientras este número no cambie, aunque cambie la
+     * versión del grafo. Si las distancias desde el origen no se mantienen devuelve la versión del grafo.
+     *
+     * @param origen vertice origen
+     * @return la versión de los caminos mínimos desde el origen, -1 si el vértice no existe
+     */
+    public long versionCaminosMinimos(E origen) {
+        NodoVert<E> vert = buscarVertice(origen);
+        long versionOrigen = -1;
+        if (vert != null) {
+            if (caminosMinimos != null)
+                versionOrigen = caminosMinimos.version(vert);
+            if (versionOrigen == -1)
+                versionOrigen = version;
+        }
+        return versionOrigen;
+    }
+
+    private CaminosMinimosDinamicos<E> obtenerCaminosMinimos() {
+        if (caminosMinimos == null)
+            caminosMinimos = new CaminosMinimosDinamicos<>(this, MAX_ORIGENES_MANTENIDOS);
+        return caminosMinimos;
     }
 
     @Override
@@ -222,17 +509,7 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
     }
 
     protected boolean existeArco(NodoVert<E> origen, NodoVert<E> destino) {
-        boolean existe = false;
-
-        if (origen != null && destino != null) {
-            NodoAdy<E> ady = origen.getPrimerAdy();
-            while (!existe && ady != null) {
-                existe = ady.getVertice().getElem().equals(destino.getElem());
-                ady = ady.getSigAdy();
-            }
-        }
-
-        return existe;
+        return origen != null && destino != null && origen.buscarAdyacente(destino) != null;
     }
 
     @Override
@@ -276,44 +553,174 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
         NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
         NodoVert<E> vertOrigen = vertices[0];
         NodoVert<E> vertDestino = vertices[1];
-        ListaDinamica<E> visitados = new ListaDinamica<>();
         ListaDinamica<E> camino = new ListaDinamica<>();
-        int[] distanciaMinima = {Integer.MAX_VALUE}; // Se usa un arreglo para mantener la referencia y poder modificarlo.
 
         if (vertOrigen != null && vertDestino != null) {
-            camino = caminoMasCorto(vertOrigen, vertDestino, visitados, 0, camino, distanciaMinima);
+            camino = caminoMasCorto(vertOrigen, vertDestino);
         }
         return camino;
     }
 
-    protected ListaDinamica<E> caminoMasCorto(NodoVert<E> vertice,
-                                              NodoVert<E> destino,
-                                              ListaDinamica<E> visitados,
-                                              int distActual,
-                                              ListaDinamica<E> camino,
-                                              int[] distMin) {
-        if (distActual < distMin[0]) {
-            visitados.insertar(vertice.getElem());
-            if (vertice == destino) {
-                camino = visitados.clone();
-                distMin[0] = distActual;
+    /**
+     * Devuelve el camino de menor distancia entre ambos vértices. Las etiquetas de los arcos no deben ser negativas.
+     * Si hay más de un camino con la misma distancia devuelve el primero según el orden de los adyacentes, el mismo
+     * que devolvería un recorrido en profundidad de todos los caminos.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return lista con el camino, vacía si no hay camino
+     */
+    protected ListaDinamica<E> caminoMasCorto(NodoVert<E> origen, NodoVert<E> destino) {
+        int[] dist = caminosMinimos != null ? caminosMinimos.distanciasGuardadas(origen) : null;
+        if (dist == null)
+            dist = distanciasMinimas(origen, destino);
+        int distDestino = dist[destino.getId()];
+        return armarCamino(origen, destino, dist, null, distDestino, distDestino, true);
+    }
+
+    /**
+     * Devuelve la suma de las etiquetas del camino más corto entre ambos vértices. Si se mantienen los caminos
+     * mínimos desde el origen es O(1).
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return la distancia mínima, -1 si alguno de los vértices no existe o no hay camino
+     */
+    public int distanciaMinima(E origen, E destino) {
+        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
+        int distancia = INFINITO;
+
+        if (vertices[0] != null && vertices[1] != null) {
+            int[] dist = caminosMinimos != null ? caminosMinimos.distanciasGuardadas(vertices[0]) : null;
+            if (dist != null)
+                distancia = dist[vertices[1].getId()];
+            else
+                distancia = distanciasMinimas(vertices[0], vertices[1])[vertices[1].getId()];
+        }
+        return distancia == INFINITO ? -1 : distancia;
+    }
+
+    /**
+     * Algoritmo de Dijkstra con un heap binario, O((V + E) log V). Si se envía un destino termina después de fijar
+     * la distancia del destino y la de los vértices a su misma distancia, que con etiquetas 0 pueden estar en algún
+     * camino mínimo. Así armarCamino elige el mismo camino sin importar en qué orden salen de la cola.
+     *
+     * @param origen  vértice desde donde se calculan las distancias
+     * @param destino vértice donde se puede cortar la búsqueda, null para calcular todas las distancias
+     * @return arreglo con las distancias indexado por id del vértice, INFINITO si no se alcanza
+     */
+    protected int[] distanciasMinimas(NodoVert<E> origen, NodoVert<E> destino) {
+        int[] dist = new int[cantVertices];
+        ColaPrioridadIndexada porVisitar = new ColaPrioridadIndexada(cantVertices);
+        int largo = INFINITO;
+        NodoAdy<E> ady;
+        int id, idAdy;
+        long nuevaDist;
+
+        Arrays.fill(dist, INFINITO);
+        dist[origen.getId()] = 0;
+        porVisitar.insertar(origen.getId(), 0);
+        while (!porVisitar.estaVacia() && porVisitar.obtenerPrioridadFrente() <= largo) {
+            id = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            verticesFijados++;
+            if (verticesPorId[id] == destino) {
+                largo = dist[id];
             } else {
-                NodoAdy<E> ady = vertice.getPrimerAdy();
+                ady = verticesPorId[id].getPrimerAdy();
                 while (ady != null) {
-                    if (!visitados.existe(ady.getVertice().getElem())) {
-
-                        camino = caminoMasCorto(
-                                ady.getVertice(),
-                                destino,
-                                visitados,
-                                distActual + ady.getEtiqueta(),
-                                camino,
-                                distMin);
+                    idAdy = ady.getVertice().getId();
+                    nuevaDist = (long) dist[id] + ady.getEtiqueta();
+                    if (nuevaDist < dist[idAdy]) {
+                        dist[idAdy] = (int) nuevaDist;
+                        porVisitar.insertar(idAdy, dist[idAdy]);
                     }
                     ady = ady.getSigAdy();
                 }
             }
-            visitados.eliminar(visitados.longitud());
+        }
+        return dist;
+    }
+
+    /**
+     * Devuelve la cantidad de vértices que fijaron las búsquedas de caminos mínimos (Dijkstra o A*) desde la última
+     * vez que se reinició el contador.
+     *
+     * @return cantidad de vértices fijados
+     */
+    public long getVerticesFijados() {
+        return verticesFijados;
+    }
+
+    public void reiniciarVerticesFijados() {
+        verticesFijados = 0;
+    }
+
+    /**
+     * Arma el camino mínimo hacia el destino a partir de las distancias calculadas por Dijkstra o por un recorrido
+     * en anchura. Recorre en profundidad desde el origen solo los arcos que están en algún camino mínimo, en el orden
+     * de los adyacentes, así que el primer camino que llega al destino es el mismo que elige el recorrido de todos
+     * los caminos. Cada vértice se visita una sola vez, O(V + E).
+     * Las distancias desde el origen se usan para los vértices a distancia menor o igual a radio. Más lejos se usan
+     * las distancias hacia el destino (búsqueda bidireccional), en ese caso un arco sirve si completa un camino de
+     * largo exacto.
+     *
+     * @param origen        vértice origen
+     * @param destino       vértice destino
+     * @param dist          distancias desde el origen por id, INFINITO si no se conoce
+     * @param distInv       distancias hacia el destino por id, o null si no se calcularon
+     * @param radio         distancia hasta donde se conocen todas las distancias desde el origen
+     * @param largo         largo del camino mínimo, INFINITO si no hay camino
+     * @param usarEtiquetas true para sumar las etiquetas de los arcos, false para contar los arcos
+     * @return lista con el camino, vacía si no hay camino
+     */
+    protected ListaDinamica<E> armarCamino(NodoVert<E> origen,
+                                           NodoVert<E> destino,
+                                           int[] dist,
+                                           int[] distInv,
+                                           int radio,
+                                           int largo,
+                                           boolean usarEtiquetas) {
+        ListaDinamica<E> camino = new ListaDinamica<>();
+
+        if (largo != INFINITO) {
+            NodoVert<E>[] pila = new NodoVert[cantVertices];
+            NodoAdy<E>[] sigAdy = new NodoAdy[cantVertices]; // siguiente adyacente a probar de cada vértice de la pila
+            long[] distPila = new long[cantVertices];
+            boolean[] visitados = new boolean[cantVertices];
+            NodoAdy<E> ady;
+            NodoVert<E> vert;
+            boolean sirve;
+            long nuevaDist;
+            int tope = 0, id;
+
+            pila[0] = origen;
+            sigAdy[0] = origen.getPrimerAdy();
+            visitados[origen.getId()] = true;
+            while (tope >= 0 && pila[tope] != destino) {
+                ady = sigAdy[tope];
+                if (ady == null) { // desde este vértice no se llega al destino por un camino mínimo
+                    tope--;
+                } else {
+                    sigAdy[tope] = ady.getSigAdy();
+                    vert = ady.getVertice();
+                    id = vert.getId();
+                    nuevaDist = distPila[tope] + (usarEtiquetas ? ady.getEtiqueta() : 1);
+                    if (dist[id] <= radio)
+                        sirve = dist[id] == nuevaDist;
+                    else
+                        sirve = distInv != null && distInv[id] != INFINITO && nuevaDist + distInv[id] == largo;
+                    if (sirve && !visitados[id]) {
+                        visitados[id] = true;
+                        tope++;
+                        pila[tope] = vert;
+                        sigAdy[tope] = vert.getPrimerAdy();
+                        distPila[tope] = nuevaDist;
+                    }
+                }
+            }
+            for (int i = 0; i <= tope; i++)
+                camino.insertar(pila[i].getElem());
         }
         return camino;
     }
@@ -323,276 +730,478 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
         NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
         NodoVert<E> vertOrigen = vertices[0];
         NodoVert<E> vertDestino = vertices[1];
-        ListaDinamica<E> visitados = new ListaDinamica<>();
         ListaDinamica<E> camino = new ListaDinamica<>();
-        int[] distanciaMinima = {Integer.MAX_VALUE}; // Se usa un arreglo para mantener la referencia y poder modificarlo.
 
         if (vertOrigen != null && vertDestino != null) {
-            camino = caminoConMenosVertices(vertOrigen, vertDestino, visitados, 0, camino, distanciaMinima);
+            int[] niveles = nivelesMinimos(vertOrigen, vertDestino);
+            int nivelDestino = niveles[vertDestino.getId()];
+            camino = armarCamino(vertOrigen, vertDestino, niveles, null, nivelDestino, nivelDestino, false);
         }
         return camino;
     }
 
-    private ListaDinamica<E> caminoConMenosVertices(NodoVert<E> vertice,
-                                                    NodoVert<E> destino,
-                                                    ListaDinamica<E> visitados,
-                                                    int distActual,
-                                                    ListaDinamica<E> camino,
-                                                    int[] distMin) {
-        if (distActual < distMin[0]) {
-            visitados.insertar(vertice.getElem());
-            if (vertice == destino) {
-                camino = visitados.clone();
-                distMin[0] = distActual;
+    /**
+     * Recorrido en anchura desde el origen que calcula la cantidad mínima de arcos hasta cada vértice, O(V + E).
+     * Termina cuando saca al destino de la cola, en ese momento ya están todos los niveles menores al del destino.
+     *
+     * @param origen  vértice desde donde se cuentan los arcos
+     * @param destino vértice donde se puede cortar la búsqueda, null para recorrer todo lo alcanzable
+     * @return arreglo con los niveles indexado por id del vértice, INFINITO si no se alcanza
+     */
+    protected int[] nivelesMinimos(NodoVert<E> origen, NodoVert<E> destino) {
+        int[] nivel = new int[cantVertices];
+        int[] porVisitar = new int[cantVertices]; // cada vértice entra una sola vez a la cola
+        int frente = 0, fin = 0, id, idAdy;
+        boolean llego = false;
+        NodoAdy<E> ady;
+
+        Arrays.fill(nivel, INFINITO);
+        nivel[origen.getId()] = 0;
+        porVisitar[fin++] = origen.getId();
+        while (!llego && frente < fin) {
+            id = porVisitar[frente++];
+            if (verticesPorId[id] == destino) {
+                llego = true;
             } else {
-                NodoAdy<E> ady = vertice.getPrimerAdy();
+                ady = verticesPorId[id].getPrimerAdy();
                 while (ady != null) {
-                    if (!visitados.existe(ady.getVertice().getElem())) {
-
-                        camino = caminoConMenosVertices(
-                                ady.getVertice(),
-                                destino,
-                                visitados,
-                                distActual + 1,
-                                camino,
-                                distMin);
+                    idAdy = ady.getVertice().getId();
+                    if (nivel[idAdy] == INFINITO) {
+                        nivel[idAdy] = nivel[id] + 1;
+                        porVisitar[fin++] = idAdy;
                     }
                     ady = ady.getSigAdy();
                 }
             }
-            visitados.eliminar(visitados.longitud());
         }
-        return camino;
+        return nivel;
     }
 
-    @Override
-    public Lista<E> caminoMasCorto(E origen, E destino1, E destino2) {
-        NodoVert<E>[] vertices = buscarTresVertices(origen, destino1, destino2);
+    /**
+     * Igual que caminoConMenosVertices pero con una búsqueda en anchura desde ambos extremos a la vez, que en mapas
+     * grandes visita muchos menos vértices. Devuelve exactamente el mismo camino que caminoConMenosVertices.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return lista con el camino
+     */
+    public Lista<E> caminoConMenosVerticesBidireccional(E origen, E destino) {
+        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
         NodoVert<E> vertOrigen = vertices[0];
-        NodoVert<E> vertDestino1 = vertices[1];
-        NodoVert<E> vertDestino2 = vertices[2];
-        ListaDinamica<E> visitados = new ListaDinamica<>();
-        ListaDinamica<NodoAdy<E>> arcosVisitados = new ListaDinamica<>();
+        NodoVert<E> vertDestino = vertices[1];
         ListaDinamica<E> camino = new ListaDinamica<>();
-        int[] distanciaMinima = {Integer.MAX_VALUE}; // Se usa un arreglo para mantener la referencia y poder modificarlo.
-        boolean[] bandera = {false}; // si paso por el primer destino.
-
-        if (vertOrigen != null && vertDestino1 != null && vertDestino2 != null) {
-            if (destino1 != destino2) {
-                camino = caminoMasCorto(
-                        vertOrigen,
-                        vertDestino1,
-                        vertDestino2,
-                        visitados,
-                        arcosVisitados,
-                        0,
-                        camino,
-                        distanciaMinima,
-                        bandera);
-            } else {
-                camino = caminoMasCorto(vertOrigen, vertDestino1, visitados, 0, camino, distanciaMinima);
-            }
+
+        if (vertOrigen != null && vertDestino != null) {
+            camino = caminoConMenosVerticesBidireccional(vertOrigen, vertDestino);
         }
         return camino;
     }
 
-    private ListaDinamica<E> caminoMasCorto(NodoVert<E> vertice,
-                                            NodoVert<E> destino1,
-                                            NodoVert<E> destino2,
-                                            ListaDinamica<E> visitados,
-                                            ListaDinamica<NodoAdy<E>> arcosVisitados,
-                                            int distActual,
-                                            ListaDinamica<E> camino,
-                                            int[] distMin,
-                                            boolean[] bandera) {
-        if (distActual < distMin[0]) {
-            visitados.insertar(vertice.getElem());
-
-            if (bandera[0] && vertice == destino2) { // si llego al final
-                camino = visitados.clone();
-                distMin[0] = distActual;
-            } else {
-                if (!bandera[0] && vertice == destino1) { // si llego a la mitad
-                    bandera[0] = true;
+    /**
+     * Avanza un nivel completo por vez del lado que tiene la frontera más chica, el origen por los arcos salientes
+     * y el destino por los entrantes, hasta que los dos lados se tocan. Al terminar el nivel completo se conoce el
+     * largo mínimo, y el camino se arma con los niveles de ambos lados.
+     */
+    private ListaDinamica<E> caminoConMenosVerticesBidireccional(NodoVert<E> origen, NodoVert<E> destino) {
+        int[][] entrantes = obtenerEntrantes();
+        int[] nivelOrigen = new int[cantVertices], nivelDestino = new int[cantVertices];
+        int[] colaOrigen = new int[cantVertices], colaDestino = new int[cantVertices];
+        int frenteOrigen = 0, finOrigen = 0, frenteDestino = 0, finDestino = 0;
+        int radioOrigen = 0, radioDestino = 0, largo = INFINITO;
+        int id, idAdy, finNivel;
+        NodoAdy<E> ady;
+
+        Arrays.fill(nivelOrigen, INFINITO);
+        Arrays.fill(nivelDestino, INFINITO);
+        nivelOrigen[origen.getId()] = 0;
+        colaOrigen[finOrigen++] = origen.getId();
+        nivelDestino[destino.getId()] = 0;
+        colaDestino[finDestino++] = destino.getId();
+        if (origen == destino)
+            largo = 0;
+
+        while (largo == INFINITO && frenteOrigen < finOrigen && frenteDestino < finDestino) {
+            if (finOrigen - frenteOrigen <= finDestino - frenteDestino) {
+                finNivel = finOrigen;
+                while (frenteOrigen < finNivel) {
+                    id = colaOrigen[frenteOrigen++];
+                    ady = verticesPorId[id].getPrimerAdy();
+                    while (ady != null) {
+                        idAdy = ady.getVertice().getId();
+                        if (nivelOrigen[idAdy] == INFINITO) {
+                            nivelOrigen[idAdy] = radioOrigen + 1;
+                            colaOrigen[finOrigen++] = idAdy;
+                        }
+                        if (nivelDestino[idAdy] != INFINITO)
+                            largo = Math.min(largo, radioOrigen + 1 + nivelDestino[idAdy]);
+                        ady = ady.getSigAdy();
+                    }
                 }
-                NodoAdy<E> ady = vertice.getPrimerAdy();
-                while (ady != null) {
-                    if (!arcosVisitados.existe(ady)) { // mientras no haya pasado por el mismo arco
-                        arcosVisitados.insertar(ady);
-
-                        camino = caminoMasCorto(
-                                ady.getVertice(),
-                                destino1,
-                                destino2,
-                                visitados,
-                                arcosVisitados,
-                                distActual + ady.getEtiqueta(),
-                                camino,
-                                distMin,
-                                bandera);
-
-                        if (bandera[0] && ady.getVertice() == destino1) // por si volvio de la mitad, ese camino no sirve
-                            bandera[0] = false;
-                        arcosVisitados.eliminar(arcosVisitados.longitud());
+                radioOrigen++;
+            } else {
+                finNivel = finDestino;
+                while (frenteDestino < finNivel) {
+                    id = colaDestino[frenteDestino++];
+                    for (int i = 0; i < cantEntrantes[id]; i++) {
+                        int idEntrante = entrantes[id][i];
+                        if (nivelDestino[idEntrante] == INFINITO) {
+                            nivelDestino[idEntrante] = radioDestino + 1;
+                            colaDestino[finDestino++] = idEntrante;
+                        }
+                        if (nivelOrigen[idEntrante] != INFINITO)
+                            largo = Math.min(largo, radioDestino + 1 + nivelOrigen[idEntrante]);
                     }
-                    ady = ady.getSigAdy();
                 }
+                radioDestino++;
             }
+        }
+        return armarCamino(origen, destino, nivelOrigen, nivelDestino, radioOrigen, largo, false);
+    }
+
+    /**
+     * Devuelve el camino más corto desde el origen hasta el destino2 pasando por el destino1. Es el camino más corto
+     * hasta el destino1 seguido del camino más corto desde el destino1 hasta el destino2.
+     */
+    @Override
+    public Lista<E> caminoMasCorto(E origen, E destino1, E destino2) {
+        Lista<E> intermedios = new ListaDinamica<>();
+        intermedios.insertar(destino1);
+        return caminoMasCortoPasandoPor(origen, intermedios, destino2);
+    }
 
-            visitados.eliminar(visitados.longitud());
+    /**
+     * Devuelve el camino de menor distancia desde el origen hasta el destino pasando, en orden, por cada uno de los
+     * vértices intermedios. Se arma uniendo los caminos más cortos entre cada par de vértices consecutivos, así que
+     * puede repetir vértices y arcos, por ejemplo para ir a una ciudad y volver por la misma ruta.
+     * Las distancias desde cada vértice se guardan y se reparan cuando cambia el grafo, así varias consultas que
+     * parten del mismo vértice hacen Dijkstra una sola vez.
+     *
+     * @param origen      vertice origen
+     * @param intermedios vertices por los que tiene que pasar el camino, en orden
+     * @param destino     vertice destino
+     * @return lista con el camino, vacía si alguno de los vértices no existe o algún tramo no tiene camino
+     */
+    public Lista<E> caminoMasCortoPasandoPor(E origen, Lista<E> intermedios, E destino) {
+        Lista<E> camino = new ListaDinamica<>();
+        NodoVert<E>[] paradas = new NodoVert[intermedios.longitud() + 2];
+        ListaDinamica<E> tramo;
+        boolean existen;
+
+        paradas[0] = buscarVertice(origen);
+        for (int i = 1; i <= intermedios.longitud(); i++)
+            paradas[i] = buscarVertice(intermedios.recuperar(i));
+        paradas[paradas.length - 1] = buscarVertice(destino);
+        existen = true;
+        for (int i = 0; existen && i < paradas.length; i++)
+            existen = paradas[i] != null;
+
+        if (existen) {
+            camino.insertar(paradas[0].getElem());
+            for (int i = 1; !camino.estaVacia() && i < paradas.length; i++) {
+                tramo = caminoMasCortoDesde(paradas[i - 1], paradas[i]);
+                if (tramo.estaVacia()) {
+                    camino.vaciar();
+                } else {
+                    for (int j = 2; j <= tramo.longitud(); j++) // el primero ya está en el camino
+                        camino.insertar(tramo.recuperar(j));
+                }
+            }
         }
         return camino;
     }
 
+    /**
+     * Igual que caminoMasCorto(origen, destino) pero calcula todas las distancias desde el origen y las mantiene, para
+     * reutilizarlas en las consultas siguientes desde el mismo origen.
+     */
+    protected ListaDinamica<E> caminoMasCortoDesde(NodoVert<E> origen, NodoVert<E> destino) {
+        int[] dist = obtenerCaminosMinimos().distancias(origen);
+        int distDestino = dist[destino.getId()];
+        return armarCamino(origen, destino, dist, null, distDestino, distDestino, true);
+    }
+
+    /**
+     * Devuelve el camino de mayor distancia entre ambos vértices. En el digrafo el camino no repite arcos, en el
+     * grafo no dirigido no repite vértices. Si hay más de uno devuelve el primero según el orden de los adyacentes.
+     * En grafos chicos usa programación dinámica sobre los vértices usados y en los demás una búsqueda con poda, ver
+     * CaminoMasLargo.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return el camino más largo, vacío si no hay camino
+     */
     @Override
     public Lista<E> caminoMasLargo(E origen, E destino) {
         NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
-        NodoVert<E> vertOrigen = vertices[0];
-        NodoVert<E> vertDestino = vertices[1];
-        ListaDinamica<E> vertVisitados = new ListaDinamica<>();
-        ListaDinamica<NodoAdy<E>> arcosVisitados = new ListaDinamica<>();
         ListaDinamica<E> camino = new ListaDinamica<>();
-        int[] distanciaMaxima = {Integer.MIN_VALUE};
 
-        if (vertOrigen != null && vertDestino != null) {
-            camino = caminoMasLargo(
-                    vertOrigen,
-                    vertDestino,
-                    vertVisitados,
-                    arcosVisitados,
-                    0,
-                    camino,
-                    distanciaMaxima);
+        if (vertices[0] != null && vertices[1] != null) {
+            camino = new CaminoMasLargo<>(this, vertices[0], vertices[1], caminoMasLargoPorArcos()).buscar();
         }
         return camino;
     }
 
-    private ListaDinamica<E> caminoMasLargo(NodoVert<E> vertice,
-                                            NodoVert<E> destino,
-                                            ListaDinamica<E> vertVisitados,
-                                            ListaDinamica<NodoAdy<E>> arcosVisitados,
-                                            int distActual,
-                                            ListaDinamica<E> camino,
-                                            int[] distMax) {
-        vertVisitados.insertar(vertice.getElem());
-        if (vertice == destino) { // si llego al destino, los vertices visitados es un posible camino
-            if (distActual > distMax[0]) {
-                camino = vertVisitados.clone();
-                distMax[0] = distActual;
-            }
-        } else { // mientras sea cualquier vertice menos el destino
-            NodoAdy<E> ady = vertice.getPrimerAdy();
-            while (ady != null) {
-                if (!arcosVisitados.existe(ady)) {
-                    arcosVisitados.insertar(ady);
-
-                    camino = caminoMasLargo(
-                            ady.getVertice(),
-                            destino,
-                            vertVisitados,
-                            arcosVisitados,
-                            distActual + ady.getEtiqueta(),
-                            camino,
-                            distMax);
-
-                    arcosVisitados.eliminar(arcosVisitados.longitud());
-                }
-                ady = ady.getSigAdy();
-            }
-        }
-        vertVisitados.eliminar(vertVisitados.longitud());
+    /**
+     * Igual que caminoMasLargo pero repartiendo la búsqueda entre los hilos del pool común de ForkJoinPool.
+     * Devuelve el mismo camino que la versión secuencial.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return el camino más largo, vacío si no hay camino
+     */
+    public Lista<E> caminoMasLargoParalelo(E origen, E destino) {
+        return caminoMasLargoParalelo(origen, destino, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Igual que caminoMasLargoParalelo(origen, destino) pero usando el pool dado.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @param pool    pool donde se ejecutan las tareas
+     * @return el camino más largo, vacío si no hay camino
+     */
+    public Lista<E> caminoMasLargoParalelo(E origen, E destino, ForkJoinPool pool) {
+        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
+        Lista<E> camino = new ListaDinamica<>();
 
+        if (vertices[0] != null && vertices[1] != null) {
+            camino = new BusquedaParalela<>(this, vertices[1], caminoMasLargoPorArcos(), true)
+                    .caminoMasLargo(pool, vertices[0]);
+        }
         return camino;
     }
 
+    /**
+     * En el digrafo el camino más largo no repite arcos pero puede repetir vértices.
+     *
+     * @return verdadero si el camino más largo solo evita repetir arcos, falso si evita repetir vértices
+     */
+    protected boolean caminoMasLargoPorArcos() {
+        return true;
+    }
+
     @Override
     public Lista<Lista<E>> caminosPosibles(E origen, E destino) {
+        Lista<Lista<E>> caminos = new ListaDinamica<>();
+        Iterator<Lista<E>> iterador = iteradorCaminos(origen, destino);
+
+        while (iterador.hasNext()) {
+            caminos.insertar(iterador.next());
+        }
+        return caminos;
+    }
+
+    /**
+     * Igual que caminosPosibles pero repartiendo la búsqueda entre los hilos del pool común de ForkJoinPool.
+     * Devuelve los mismos caminos y en el mismo orden que la versión secuencial.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return lista de caminos, vacía si alguno de los vértices no existe
+     */
+    public Lista<Lista<E>> caminosPosiblesParalelo(E origen, E destino) {
+        return caminosPosiblesParalelo(origen, destino, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Igual que caminosPosiblesParalelo(origen, destino) pero usando el pool dado.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @param pool    pool donde se ejecutan las tareas
+     * @return lista de caminos, vacía si alguno de los vértices no existe
+     */
+    public Lista<Lista<E>> caminosPosiblesParalelo(E origen, E destino, ForkJoinPool pool) {
         NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
-        NodoVert<E> vertOrigen = vertices[0];
-        NodoVert<E> vertDestino = vertices[1];
-        ListaDinamica<E> visitados = new ListaDinamica<>();
         Lista<Lista<E>> caminos = new ListaDinamica<>();
 
-        if (vertOrigen != null & vertDestino != null) {
-            caminosPosibles(vertOrigen, vertDestino, visitados, caminos);
+        if (vertices[0] != null && vertices[1] != null) {
+            caminos = new BusquedaParalela<>(this, vertices[1], false, false).caminosPosibles(pool, vertices[0]);
         }
         return caminos;
     }
 
-    private void caminosPosibles(NodoVert<E> vertice,
-                                 NodoVert<E> destino,
-                                 ListaDinamica<E> visitados,
-                                 Lista<Lista<E>> caminos) {
-        visitados.insertar(vertice.getElem());
-        if (vertice == destino) {
-            caminos.insertar(visitados.clone());
-        } else {
-            NodoAdy<E> ady = vertice.getPrimerAdy();
-            while (ady != null) {
-                if (!visitados.existe(ady.getVertice().getElem())) {
-                    caminosPosibles(ady.getVertice(), destino, visitados, caminos);
-                }
-                ady = ady.getSigAdy();
-            }
+    /**
+     * Devuelve un iterador sobre los caminos sin ciclos desde el vértice origen al vértice destino, en el mismo
+     * orden que caminosPosibles. Cada camino se calcula recién cuando se lo pide.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return iterador de caminos, vacío si alguno de los vértices no existe
+     */
+    public Iterator<Lista<E>> iteradorCaminos(E origen, E destino) {
+        return iteradorCaminos(origen, destino, SIN_LIMITE, SIN_LIMITE, SIN_LIMITE);
+    }
+
+    /**
+     * Igual que iteradorCaminos(origen, destino) pero con límites, SIN_LIMITE para no limitar. Las ramas que superan
+     * la cantidad de arcos o la distancia no se recorren.
+     *
+     * @param origen       vertice origen
+     * @param destino      vertice destino
+     * @param maxCaminos   cantidad máxima de caminos a devolver
+     * @param maxArcos     cantidad máxima de arcos de cada camino
+     * @param maxDistancia suma máxima de las etiquetas de cada camino
+     * @return iterador de caminos, vacío si alguno de los vértices no existe
+     */
+    public Iterator<Lista<E>> iteradorCaminos(E origen, E destino, int maxCaminos, int maxArcos, int maxDistancia) {
+        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
+        return new IteradorCaminos<>(vertices[0], vertices[1], cantVertices, maxCaminos, maxArcos, maxDistancia);
+    }
+
+    /**
+     * Le envía al consumidor cada camino sin ciclos desde el vértice origen al vértice destino a medida que lo
+     * encuentra, sin guardar los caminos.
+     *
+     * @param origen     vertice origen
+     * @param destino    vertice destino
+     * @param consumidor recibe cada camino
+     */
+    public void forEachCamino(E origen, E destino, Consumer<Lista<E>> consumidor) {
+        forEachCamino(origen, destino, SIN_LIMITE, SIN_LIMITE, SIN_LIMITE, consumidor);
+    }
+
+    /**
+     * Igual que forEachCamino(origen, destino, consumidor) pero con límites, SIN_LIMITE para no limitar.
+     *
+     * @param origen       vertice origen
+     * @param destino      vertice destino
+     * @param maxCaminos   cantidad máxima de caminos a recorrer
+     * @param maxArcos     cantidad máxima de arcos de cada camino
+     * @param maxDistancia suma máxima de las etiquetas de cada camino
+     * @param consumidor   recibe cada camino
+     */
+    public void forEachCamino(E origen,
+                              E destino,
+                              int maxCaminos,
+                              int maxArcos,
+                              int maxDistancia,
+                              Consumer<Lista<E>> consumidor) {
+        Iterator<Lista<E>> iterador = iteradorCaminos(origen, destino, maxCaminos, maxArcos, maxDistancia);
+        while (iterador.hasNext()) {
+            consumidor.accept(iterador.next());
         }
-        visitados.eliminar(visitados.longitud());
+    }
+
+    /**
+     * Devuelve los k caminos sin ciclos de menor distancia desde el vértice origen al vértice destino, ordenados de
+     * menor a mayor distancia. Cuesta O(k V (E + V log V)) aunque haya muchos más caminos, ver
+     * iteradorCaminosMasCortos.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @param k       cantidad máxima de caminos
+     * @return lista de caminos, vacía si alguno de los vértices no existe o no hay camino
+     */
+    public Lista<Lista<E>> caminosMasCortos(E origen, E destino, int k) {
+        return congelar().caminosMasCortos(origen, destino, k);
+    }
+
+    /**
+     * Devuelve un iterador sobre los caminos sin ciclos desde el vértice origen al vértice destino, de menor a mayor
+     * distancia (algoritmo de Yen). El primero es el de caminoMasCorto y cada camino se calcula recién cuando se lo
+     * pide. Las etiquetas de los arcos no deben ser negativas.
+     * Recorre una copia del grafo armada con congelar en O(V + E), así que los cambios posteriores en el grafo no
+     * afectan a los caminos que faltan.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return iterador de caminos, vacío si alguno de los vértices no existe
+     */
+    public Iterator<Lista<E>> iteradorCaminosMasCortos(E origen, E destino) {
+        return congelar().iteradorCaminosMasCortos(origen, destino);
     }
 
     @Override
     public Lista<E> listarEnProfundidad() {
         Lista<E> visitados = new ListaDinamica<>();
+        boolean[] marcados = new boolean[cantVertices]; // por id
+        NodoVert<E>[] pila = new NodoVert[cantVertices];
+        NodoAdy<E>[] sigAdy = new NodoAdy[cantVertices]; // siguiente adyacente a probar de cada vértice de la pila
         NodoVert<E> aux = this.inicio;
+
         while (aux != null) {
-            if (!visitados.existe(aux.getElem())) {
-                listarEnProfundidad(aux, visitados);
+            if (!marcados[aux.getId()]) {
+                listarEnProfundidad(aux, visitados, marcados, pila, sigAdy);
             }
             aux = aux.getSigVertice();
         }
         return visitados;
     }
 
-    private void listarEnProfundidad(NodoVert<E> nodo, Lista<E> visitados) {
-        if (nodo != null) {
-            visitados.insertar(nodo.getElem());
-            NodoAdy<E> ady = nodo.getPrimerAdy();
-            while (ady != null) {
-                if (!visitados.existe(ady.getVertice().getElem())) {
-                    listarEnProfundidad(ady.getVertice(), visitados);
+    /**
+     * Recorrido en profundidad con una pila explícita, visita los vértices en el mismo orden que el recorrido
+     * recursivo.
+     */
+    private void listarEnProfundidad(NodoVert<E> nodo,
+                                     Lista<E> visitados,
+                                     boolean[] marcados,
+                                     NodoVert<E>[] pila,
+                                     NodoAdy<E>[] sigAdy) {
+        NodoAdy<E> ady;
+        NodoVert<E> vert;
+        int tope = 0;
+
+        marcados[nodo.getId()] = true;
+        visitados.insertar(nodo.getElem());
+        pila[0] = nodo;
+        sigAdy[0] = nodo.getPrimerAdy();
+        while (tope >= 0) {
+            ady = sigAdy[tope];
+            if (ady == null) {
+                tope--;
+            } else {
+                sigAdy[tope] = ady.getSigAdy();
+                vert = ady.getVertice();
+                if (!marcados[vert.getId()]) {
+                    marcados[vert.getId()] = true;
+                    visitados.insertar(vert.getElem());
+                    tope++;
+                    pila[tope] = vert;
+                    sigAdy[tope] = vert.getPrimerAdy();
                 }
-                ady = ady.getSigAdy();
             }
         }
     }
 
+    /**
+     * Recorrido en anchura, cada vértice aparece una sola vez en el orden en que se encuentra.
+     */
     @Override
     public Lista<E> listarEnAnchura() {
         Lista<E> visitados = new ListaDinamica<>();
+        boolean[] marcados = new boolean[cantVertices]; // por id
+        NodoVert<E>[] cola = new NodoVert[cantVertices];
         NodoVert<E> vert = inicio;
+
         while (vert != null) {
-            if (!visitados.existe(vert.getElem())) {
-                listarEnAnchura(vert, visitados);
+            if (!marcados[vert.getId()]) {
+                listarEnAnchura(vert, visitados, marcados, cola);
             }
             vert = vert.getSigVertice();
         }
         return visitados;
     }
 
-    private void listarEnAnchura(NodoVert<E> vertIni, Lista<E> visitados) {
-        // TODO Mal, y si el vertice adyacente ya esta en la cola???? lo vuelve a agregar, ojo!!!
-        Cola<NodoVert<E>> porVisitar = new ColaDinamica<>();
+    /**
+     * Los vértices se marcan al ponerlos en la cola, así ninguno entra dos veces.
+     */
+    private void listarEnAnchura(NodoVert<E> vertIni, Lista<E> visitados, boolean[] marcados, NodoVert<E>[] cola) {
         NodoVert<E> vert;
         NodoAdy<E> ady;
+        int frente = 0, fin = 0;
 
-        porVisitar.poner(vertIni);
-        while (!porVisitar.esVacia()) {
-            vert = porVisitar.obtenerFrente();
-            porVisitar.sacar();
+        marcados[vertIni.getId()] = true;
+        cola[fin++] = vertIni;
+        while (frente < fin) {
+            vert = cola[frente++];
             visitados.insertar(vert.getElem());
             ady = vert.getPrimerAdy();
             while (ady != null) {
-                // y si el vertice ya esta en la cola????
-                if (!visitados.existe(ady.getVertice().getElem())) {
-                    porVisitar.poner(ady.getVertice());
+                if (!marcados[ady.getVertice().getId()]) {
+                    marcados[ady.getVertice().getId()] = true;
+                    cola[fin++] = ady.getVertice();
                 }
                 ady = ady.getSigAdy();
             }
@@ -650,6 +1259,26 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
         return sb.append("}").toString();
     }
 
+    /**
+     * Devuelve una copia inmutable del grafo guardada en arreglos, para hacer muchas consultas de solo lectura o
+     * compartirla entre varios hilos. Se arma en O(V + E).
+     *
+     * @return la copia compacta del grafo actual
+     */
+    public GrafoCompacto<E> congelar() {
+        return new GrafoCompacto<>(this);
+    }
+
+    /**
+     * Devuelve una copia del grafo que se consulta y se modifica con números de vértice, para hacer muchas búsquedas
+     * de caminos sin crear objetos. Los vértices se numeran en el orden de la lista de vértices. Se arma en O(V + E).
+     *
+     * @return la copia numerada del grafo actual
+     */
+    public GrafoEtiquetadoEnteros<E> numerar() {
+        return new GrafoEtiquetadoEnteros<>(this);
+    }
+
     @Override
     public boolean esVacio() {
         return inicio == null;
@@ -658,12 +1287,22 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
     @Override
     public void vaciar() {
         this.inicio = null;
+        this.verticesPorId = new NodoVert[10];
+        this.cantVertices = 0;
+        this.verticesPorElem.clear();
+        this.entrantes = null;
+        this.caminosMinimos = null;
+        grafoModificado();
     }
 
     protected static class NodoVert<E> implements Serializable {
         private E elem;
         private NodoVert<E> sigVertice;
         private NodoAdy<E> primerAdy;
+        private int cantAdyacentes;
+        // adyacentes por vértice destino, solo en los vértices con muchos arcos
+        private transient HashMap<NodoVert<E>, NodoAdy<E>> indiceAdyacentes;
+        private int id;
 
         public NodoVert(E elem) {
             this(elem, null);
@@ -683,6 +1322,14 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
             this.elem = elem;
         }
 
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
         public NodoVert<E> getSigVertice() {
             return sigVertice;
         }
@@ -695,8 +1342,64 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
             return primerAdy;
         }
 
-        public void setPrimerAdy(NodoAdy<E> primerAdy) {
-            this.primerAdy = primerAdy;
+        public int getCantAdyacentes() {
+            return cantAdyacentes;
+        }
+
+        /**
+         * Inserta el adyacente al principio de la lista. Cuando el vértice llega a UMBRAL_INDICE_ADYACENTES arcos
+         * arma el índice de adyacentes por vértice destino.
+         */
+        public void insertarAdyacente(NodoAdy<E> ady) {
+            ady.setSigAdy(primerAdy);
+            ady.setAntAdy(null);
+            if (primerAdy != null)
+                primerAdy.setAntAdy(ady);
+            primerAdy = ady;
+            cantAdyacentes++;
+            if (indiceAdyacentes != null) {
+                indiceAdyacentes.put(ady.getVertice(), ady);
+            } else if (cantAdyacentes >= UMBRAL_INDICE_ADYACENTES) {
+                indiceAdyacentes = new HashMap<>();
+                for (NodoAdy<E> otro = primerAdy; otro != null; otro = otro.getSigAdy())
+                    indiceAdyacentes.put(otro.getVertice(), otro);
+            }
+        }
+
+        /**
+         * Quita el adyacente de la lista en O(1). El nodo quitado conserva su siguiente, así se puede seguir
+         * recorriendo la lista desde él.
+         */
+        public void quitarAdyacente(NodoAdy<E> ady) {
+            if (ady.getAntAdy() == null)
+                primerAdy = ady.getSigAdy();
+            else
+                ady.getAntAdy().setSigAdy(ady.getSigAdy());
+            if (ady.getSigAdy() != null)
+                ady.getSigAdy().setAntAdy(ady.getAntAdy());
+            cantAdyacentes--;
+            if (indiceAdyacentes != null) {
+                indiceAdyacentes.remove(ady.getVertice());
+                if (cantAdyacentes < UMBRAL_INDICE_ADYACENTES / 2)
+                    indiceAdyacentes = null;
+            }
+        }
+
+        /**
+         * Busca el arco hacia el vértice destino, en O(1) si el vértice tiene el índice de adyacentes.
+         *
+         * @return el nodo adyacente del arco, null si no existe
+         */
+        public NodoAdy<E> buscarAdyacente(NodoVert<E> destino) {
+            NodoAdy<E> ady;
+            if (indiceAdyacentes != null) {
+                ady = indiceAdyacentes.get(destino);
+            } else {
+                ady = primerAdy;
+                while (ady != null && ady.getVertice() != destino)
+                    ady = ady.getSigAdy();
+            }
+            return ady;
         }
 
         public boolean tieneSigVertice() {
@@ -718,6 +1421,9 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
     protected static class NodoAdy<E> implements Serializable {
         private NodoVert<E> vertice;
         private NodoAdy<E> sigAdy;
+        private NodoAdy<E> antAdy;
+        // en el grafo no dirigido, el nodo del mismo arco en la lista del otro vértice
+        private NodoAdy<E> gemelo;
         private int etiqueta;
 
         public NodoAdy(NodoVert<E> vertice, NodoAdy<E> sigAdy, int etiqueta) {
@@ -742,6 +1448,22 @@ public class DigrafoEtiquetado<E> implements Grafo<E>, Serializable {
             this.sigAdy = sigAdy;
         }
 
+        public NodoAdy<E> getAntAdy() {
+            return antAdy;
+        }
+
+        public void setAntAdy(NodoAdy<E> antAdy) {
+            this.antAdy = antAdy;
+        }
+
+        public NodoAdy<E> getGemelo() {
+            return gemelo;
+        }
+
+        public void setGemelo(NodoAdy<E> gemelo) {
+            this.gemelo = gemelo;
+        }
+
         public boolean tieneSigAdyacente() {
             return sigAdy != null;
         }
@@ -0,0 +1,722 @@
+package estructuras.grafo;
+
+import estructuras.grafo.DigrafoEtiquetado.NodoAdy;
+import estructuras.grafo.DigrafoEtiquetado.NodoVert;
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Copia inmutable de un grafo etiquetado guardada en arreglos contiguos (formato CSR). Los vértices se numeran de 0
+ * a V - 1 en el orden de la lista de vértices del grafo, y los arcos del vértice v son las posiciones
+ * primerArco[v] a primerArco[v + 1] - 1 de los arreglos destinos y etiquetas, en el orden de su lista de
+ * adyacentes. Así los recorridos devuelven los mismos resultados que el grafo original pero sin saltar entre nodos
+ * dispersos en memoria.
+ * Ningún método modifica la copia y cada consulta usa sus propios arreglos, salvo las distancias desde los últimos
+ * vértices de partida de caminoMasCortoPasandoPor, que se guardan en un mapa chico sincronizado, y la tabla de
+ * distancias entre todos los pares, que se publica entera una vez armada. Así se puede compartir entre varios hilos
+ * sin sincronizar desde afuera.
+ * Los cambios posteriores en el grafo original no se reflejan en la copia.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+public final class GrafoCompacto<E> {
+    private static final int INFINITO = DigrafoEtiquetado.INFINITO;
+    // cada arreglo de distancias ocupa V enteros, se guardan los de los últimos orígenes usados
+    private static final int MAX_DISTANCIAS_GUARDADAS = 32;
+
+    final E[] elementos;                        // elemento de cada vértice
+    final int[] primerArco;                     // V + 1 posiciones, la última es la cantidad de arcos
+    final int[] destinos;                       // vértice destino de cada arco
+    final int[] etiquetas;                      // etiqueta de cada arco
+    private final HashMap<E, Integer> numeros;  // número de cada vértice por su elemento, no se modifica
+    private final long version;                 // versión del grafo copiado
+    // distancias desde los últimos orígenes usados, ordenadas por uso, se sincroniza sobre el mapa
+    private final LinkedHashMap<Integer, int[]> distanciasDesde;
+    // distancias y siguientes vértices entre todos los pares, se arma con precalcularDistancias
+    private volatile TablaDistancias<E> tablaDistancias;
+
+    /**
+     * Copia el grafo en O(V + E).
+     *
+     * @param grafo grafo a copiar
+     */
+    GrafoCompacto(DigrafoEtiquetado<E> grafo) {
+        int cantVertices = grafo.cantVertices;
+        int[] numeroPorId = new int[cantVertices];
+        NodoVert<E> vert = grafo.inicio;
+        NodoAdy<E> ady;
+        int cantArcos = 0, num = 0;
+
+        version = grafo.getVersion();
+        distanciasDesde = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, int[]> mayor) {
+                return size() > MAX_DISTANCIAS_GUARDADAS;
+            }
+        };
+        elementos = (E[]) new Object[cantVertices];
+        numeros = new HashMap<>();
+        primerArco = new int[cantVertices + 1];
+        while (vert != null) {
+            elementos[num] = vert.getElem();
+            numeros.put(vert.getElem(), num);
+            numeroPorId[vert.getId()] = num;
+            ady = vert.getPrimerAdy();
+            while (ady != null) {
+                cantArcos++;
+                ady = ady.getSigAdy();
+            }
+            num++;
+            primerArco[num] = cantArcos;
+            vert = vert.getSigVertice();
+        }
+
+        destinos = new int[cantArcos];
+        etiquetas = new int[cantArcos];
+        vert = grafo.inicio;
+        num = 0;
+        while (vert != null) {
+            int arco = primerArco[num];
+            ady = vert.getPrimerAdy();
+            while (ady != null) {
+                destinos[arco] = numeroPorId[ady.getVertice().getId()];
+                etiquetas[arco] = ady.getEtiqueta();
+                arco++;
+                ady = ady.getSigAdy();
+            }
+            num++;
+            vert = vert.getSigVertice();
+        }
+    }
+
+    /**
+     * @return la versión que tenía el grafo original al copiarlo, ver DigrafoEtiquetado.getVersion
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int cantidadVertices() {
+        return elementos.length;
+    }
+
+    public int cantidadArcos() {
+        return destinos.length;
+    }
+
+    public boolean exiteVertice(E elem) {
+        return numero(elem) != -1;
+    }
+
+    public boolean existeArco(E origen, E destino) {
+        boolean existe = false;
+        int numOrigen = numero(origen), numDestino = numero(destino);
+
+        if (numOrigen != -1 && numDestino != -1) {
+            for (int arco = primerArco[numOrigen]; !existe && arco < primerArco[numOrigen + 1]; arco++)
+                existe = destinos[arco] == numDestino;
+        }
+        return existe;
+    }
+
+    /**
+     * Recorrido en anchura desde el origen que termina apenas encuentra el destino.
+     */
+    public boolean existeCamino(E origen, E destino) {
+        boolean existe = false;
+        int numOrigen = numero(origen), numDestino = numero(destino);
+
+        if (numOrigen != -1 && numDestino != -1) {
+            int[] cola = new int[elementos.length];
+            boolean[] visitados = new boolean[elementos.length];
+            int frente = 0, fin = 0, num;
+
+            cola[fin++] = numOrigen;
+            visitados[numOrigen] = true;
+            while (!existe && frente < fin) {
+                num = cola[frente++];
+                if (num == numDestino) {
+                    existe = true;
+                } else {
+                    for (int arco = primerArco[num]; arco < primerArco[num + 1]; arco++) {
+                        if (!visitados[destinos[arco]]) {
+                            visitados[destinos[arco]] = true;
+                            cola[fin++] = destinos[arco];
+                        }
+                    }
+                }
+            }
+        }
+        return existe;
+    }
+
+    /**
+     * Calcula las distancias mínimas entre todos los pares de vértices y el siguiente vértice de cada camino mínimo,
+     * ver TablaDistancias. Desde entonces caminoMasCorto, distanciaMinima, caminoMasCortoPasandoPor y
+     * matrizDistancias responden con esa tabla en lugar de buscar los caminos. Ocupa dos arreglos de V * V enteros,
+     * así que conviene para mapas chicos con muchas consultas. Si la tabla ya está armada no hace nada.
+     */
+    public void precalcularDistancias() {
+        if (tablaDistancias == null)
+            tablaDistancias = new TablaDistancias<>(this);
+    }
+
+    /**
+     * @return verdadero si la tabla de distancias entre todos los pares está armada
+     */
+    public boolean distanciasPrecalculadas() {
+        return tablaDistancias != null;
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.caminoMasCorto, con Dijkstra sobre los arreglos. Si están precalculadas las
+     * distancias arma el camino con la tabla en O(largo del camino). Si no, y están guardadas las distancias desde el
+     * origen, solo arma el camino, y si tampoco hace Dijkstra hasta el destino sin guardarlas.
+     * Con etiquetas en 0 y la tabla armada puede devolver otro camino de la misma distancia.
+     *
+     * @return lista con el camino, vacía si no hay camino o alguno de los vértices no existe
+     */
+    public Lista<E> caminoMasCorto(E origen, E destino) {
+        Lista<E> camino = new ListaDinamica<>();
+        int numOrigen = numero(origen), numDestino = numero(destino);
+
+        if (numOrigen != -1 && numDestino != -1)
+            camino = caminoMasCorto(numOrigen, numDestino, false);
+        return camino;
+    }
+
+    /**
+     * Igual que caminoMasCorto. Con las distancias precalculadas es O(1), si no reutiliza las distancias guardadas
+     * desde el origen si las hay.
+     *
+     * @return la suma de las etiquetas del camino más corto, -1 si no hay camino o alguno de los vértices no existe
+     */
+    public int distanciaMinima(E origen, E destino) {
+        int distancia = INFINITO;
+        int numOrigen = numero(origen), numDestino = numero(destino);
+        TablaDistancias<E> tabla = tablaDistancias;
+
+        if (numOrigen != -1 && numDestino != -1) {
+            if (tabla != null)
+                distancia = tabla.distancia(numOrigen, numDestino);
+            else
+                distancia = distanciasHasta(numOrigen, numDestino)[numDestino];
+        }
+        return distancia == INFINITO ? -1 : distancia;
+    }
+
+    /**
+     * Arma el camino con la tabla de distancias si está y el camino no vuelve a un vértice. Si no, lo busca con las
+     * distancias desde el origen, guardándolas o no.
+     */
+    private Lista<E> caminoMasCorto(int origen, int destino, boolean guardarDistancias) {
+        TablaDistancias<E> tabla = tablaDistancias;
+        Lista<E> camino = tabla != null ? tabla.armarCamino(this, origen, destino) : null;
+
+        if (camino == null) {
+            int[] dist = guardarDistancias ? distanciasDesde(origen) : distanciasHasta(origen, destino);
+            camino = armarCamino(origen, destino, dist, true);
+        }
+        return camino;
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.caminoMasCorto(origen, destino1, destino2).
+     */
+    public Lista<E> caminoMasCorto(E origen, E destino1, E destino2) {
+        Lista<E> intermedios = new ListaDinamica<>();
+        intermedios.insertar(destino1);
+        return caminoMasCortoPasandoPor(origen, intermedios, destino2);
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.caminoMasCortoPasandoPor. Con las distancias precalculadas cada tramo se arma con
+     * la tabla. Si no, las distancias desde el vértice de partida de cada tramo se calculan a todos los vértices y se
+     * guardan, así varios itinerarios que salen de las mismas ciudades hacen Dijkstra una sola vez por ciudad
+     * mientras no se descarten.
+     *
+     * @return lista con el camino, vacía si algún tramo no tiene camino o alguno de los vértices no existe
+     */
+    public Lista<E> caminoMasCortoPasandoPor(E origen, Lista<E> intermedios, E destino) {
+        Lista<E> camino = new ListaDinamica<>();
+        int[] paradas = new int[intermedios.longitud() + 2];
+        boolean existen;
+
+        paradas[0] = numero(origen);
+        for (int i = 1; i <= intermedios.longitud(); i++)
+            paradas[i] = numero(intermedios.recuperar(i));
+        paradas[paradas.length - 1] = numero(destino);
+        existen = true;
+        for (int i = 0; existen && i < paradas.length; i++)
+            existen = paradas[i] != -1;
+
+        if (existen) {
+            camino.insertar(elementos[paradas[0]]);
+            for (int i = 1; !camino.estaVacia() && i < paradas.length; i++) {
+                Lista<E> tramo = caminoMasCorto(paradas[i - 1], paradas[i], true);
+                if (tramo.estaVacia()) {
+                    camino.vaciar();
+                } else {
+                    for (int j = 2; j <= tramo.longitud(); j++) // el primero ya está en el camino
+                        camino.insertar(tramo.recuperar(j));
+                }
+            }
+        }
+        return camino;
+    }
+
+    /**
+     * Calcula las distancias mínimas desde cada origen a cada destino. Con las distancias precalculadas las copia de
+     * la tabla, si no hace un Dijkstra por origen, en paralelo entre los orígenes, y cada uno termina apenas fija
+     * todos los destinos.
+     *
+     * @param origenes   vértices de partida, una fila por cada uno
+     * @param destinos   vértices de llegada, una columna por cada uno
+     * @param siguientes si no es null, debe tener una fila por origen y una columna por destino y se completa con el
+     *                   vértice que sigue al origen en un camino mínimo, el mismo que el de caminoMasCorto si no hay
+     *                   etiquetas en 0, null si no hay camino o el origen es el destino
+     * @return matriz de distancias, -1 si no hay camino o alguno de los vértices no existe
+     */
+    public int[][] matrizDistancias(Lista<E> origenes, Lista<E> destinos, E[][] siguientes) {
+        int[] numOrigenes = new int[origenes.longitud()];
+        int[] numDestinos = new int[destinos.longitud()];
+        int[][] matriz = new int[numOrigenes.length][numDestinos.length];
+
+        for (int i = 0; i < numOrigenes.length; i++)
+            numOrigenes[i] = numero(origenes.recuperar(i + 1));
+        for (int j = 0; j < numDestinos.length; j++)
+            numDestinos[j] = numero(destinos.recuperar(j + 1));
+        TablaDistancias<E> tabla = tablaDistancias;
+        if (tabla != null) {
+            for (int i = 0; i < numOrigenes.length; i++) {
+                filaDistancias(tabla, numOrigenes[i], numDestinos, matriz[i],
+                        siguientes != null ? siguientes[i] : null);
+            }
+        } else {
+            IntStream.range(0, numOrigenes.length).parallel().forEach(i ->
+                    filaDistancias(numOrigenes[i], numDestinos, matriz[i], siguientes != null ? siguientes[i] : null));
+        }
+        return matriz;
+    }
+
+    private void filaDistancias(TablaDistancias<E> tabla, int origen, int[] destinos, int[] fila, E[] filaSiguientes) {
+        int distancia;
+
+        for (int j = 0; j < destinos.length; j++) {
+            distancia = origen != -1 && destinos[j] != -1 ? tabla.distancia(origen, destinos[j]) : INFINITO;
+            fila[j] = distancia != INFINITO ? distancia : -1;
+            if (filaSiguientes != null)
+                filaSiguientes[j] = fila[j] != -1 && destinos[j] != origen
+                        ? elementos[tabla.siguiente(origen, destinos[j])] : null;
+        }
+    }
+
+    private void filaDistancias(int origen, int[] destinos, int[] fila, E[] filaSiguientes) {
+        Arrays.fill(fila, -1);
+        if (filaSiguientes != null)
+            Arrays.fill(filaSiguientes, null);
+
+        if (origen != -1) {
+            boolean[] esDestino = new boolean[elementos.length];
+            int cantDestinos = 0, limite = 0;
+            for (int destino : destinos) {
+                if (destino != -1 && !esDestino[destino]) {
+                    esDestino[destino] = true;
+                    cantDestinos++;
+                }
+            }
+
+            int[] dist = distanciasMinimas(origen, esDestino, cantDestinos);
+            for (int j = 0; j < destinos.length; j++) {
+                if (destinos[j] != -1 && dist[destinos[j]] != INFINITO) {
+                    fila[j] = dist[destinos[j]];
+                    limite = Math.max(limite, fila[j]);
+                }
+            }
+            if (filaSiguientes != null) {
+                int[] primerPaso = primerosPasos(origen, dist, limite);
+                for (int j = 0; j < destinos.length; j++) {
+                    if (fila[j] != -1 && destinos[j] != origen)
+                        filaSiguientes[j] = elementos[primerPaso[destinos[j]]];
+                }
+            }
+        }
+    }
+
+    /**
+     * Dijkstra desde el origen, termina apenas fija la distancia de todos los destinos.
+     */
+    private int[] distanciasMinimas(int origen, boolean[] esDestino, int cantDestinos) {
+        int[] dist = new int[elementos.length];
+        ColaPrioridadIndexada porVisitar = new ColaPrioridadIndexada(elementos.length);
+        int pendientes = cantDestinos, num;
+        long nuevaDist;
+
+        Arrays.fill(dist, INFINITO);
+        dist[origen] = 0;
+        porVisitar.insertar(origen, 0);
+        while (pendientes > 0 && !porVisitar.estaVacia()) {
+            num = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            if (esDestino[num])
+                pendientes--;
+            for (int arco = primerArco[num]; arco < primerArco[num + 1]; arco++) {
+                nuevaDist = (long) dist[num] + etiquetas[arco];
+                if (nuevaDist < dist[destinos[arco]]) {
+                    dist[destinos[arco]] = (int) nuevaDist;
+                    porVisitar.insertar(destinos[arco], dist[destinos[arco]]);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Primer vértice después del origen en el camino que elegiría armarCamino hacia cada vértice a distancia menor o
+     * igual al límite. Ese camino sigue el primer adyacente del origen desde el que se llega por arcos de caminos
+     * mínimos, así que se recorre en anchura desde cada adyacente en orden, marcando los vértices que todavía no
+     * tienen primer paso. O(V + E) para todos los destinos juntos.
+     */
+    private int[] primerosPasos(int origen, int[] dist, int limite) {
+        int[] primerPaso = new int[elementos.length];
+        int[] cola = new int[elementos.length];
+        int frente, fin, num, paso;
+
+        Arrays.fill(primerPaso, -1);
+        primerPaso[origen] = origen;
+        for (int arcoOrigen = primerArco[origen]; arcoOrigen < primerArco[origen + 1]; arcoOrigen++) {
+            paso = destinos[arcoOrigen];
+            if (primerPaso[paso] == -1 && esArcoMinimo(origen, arcoOrigen, dist, limite)) {
+                primerPaso[paso] = paso;
+                frente = 0;
+                fin = 0;
+                cola[fin++] = paso;
+                while (frente < fin) {
+                    num = cola[frente++];
+                    for (int arco = primerArco[num]; arco < primerArco[num + 1]; arco++) {
+                        if (primerPaso[destinos[arco]] == -1 && esArcoMinimo(num, arco, dist, limite)) {
+                            primerPaso[destinos[arco]] = paso;
+                            cola[fin++] = destinos[arco];
+                        }
+                    }
+                }
+            }
+        }
+        return primerPaso;
+    }
+
+    private boolean esArcoMinimo(int num, int arco, int[] dist, int limite) {
+        return dist[destinos[arco]] <= limite && dist[destinos[arco]] == (long) dist[num] + etiquetas[arco];
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.caminoConMenosVertices, con un recorrido en anchura sobre los arreglos.
+     *
+     * @return lista con el camino, vacía si no hay camino o alguno de los vértices no existe
+     */
+    public Lista<E> caminoConMenosVertices(E origen, E destino) {
+        Lista<E> camino = new ListaDinamica<>();
+        int numOrigen = numero(origen), numDestino = numero(destino);
+
+        if (numOrigen != -1 && numDestino != -1) {
+            int[] niveles = nivelesMinimos(numOrigen, numDestino);
+            camino = armarCamino(numOrigen, numDestino, niveles, false);
+        }
+        return camino;
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.caminosPosibles: los caminos sin ciclos desde el origen al destino, en el orden del
+     * recorrido en profundidad por los adyacentes.
+     *
+     * @return lista de caminos, vacía si alguno de los vértices no existe
+     */
+    public Lista<Lista<E>> caminosPosibles(E origen, E destino) {
+        Lista<Lista<E>> caminos = new ListaDinamica<>();
+        forEachCamino(origen, destino, caminos::insertar);
+        return caminos;
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.forEachCamino: le envía al consumidor cada camino sin ciclos desde el origen al
+     * destino a medida que lo encuentra, en el mismo orden que caminosPosibles.
+     */
+    public void forEachCamino(E origen, E destino, Consumer<Lista<E>> consumidor) {
+        int numOrigen = numero(origen), numDestino = numero(destino);
+
+        if (numOrigen != -1 && numDestino != -1) {
+            int[] pila = new int[elementos.length];
+            int[] sigArco = new int[elementos.length]; // siguiente arco a probar de cada vértice de la pila
+            boolean[] enCamino = new boolean[elementos.length];
+            int tope = 0, arco, num;
+
+            pila[0] = numOrigen;
+            sigArco[0] = primerArco[numOrigen];
+            enCamino[numOrigen] = true;
+            if (numOrigen == numDestino) // el unico camino es el propio vértice
+                consumidor.accept(armarCamino(pila, tope));
+            while (tope >= 0) {
+                arco = sigArco[tope];
+                if (pila[tope] == numDestino || arco == primerArco[pila[tope] + 1]) { // no se sigue después del destino
+                    enCamino[pila[tope]] = false;
+                    tope--;
+                } else {
+                    sigArco[tope]++;
+                    num = destinos[arco];
+                    if (!enCamino[num]) {
+                        tope++;
+                        pila[tope] = num;
+                        sigArco[tope] = primerArco[num];
+                        enCamino[num] = true;
+                        if (num == numDestino)
+                            consumidor.accept(armarCamino(pila, tope));
+                    }
+                }
+            }
+        }
+    }
+
+    private Lista<E> armarCamino(int[] pila, int tope) {
+        Lista<E> camino = new ListaDinamica<>();
+        for (int i = 0; i <= tope; i++)
+            camino.insertar(elementos[pila[i]]);
+        return camino;
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.caminosMasCortos: los k caminos sin ciclos de menor distancia, de menor a mayor.
+     *
+     * @return lista de caminos, vacía si alguno de los vértices no existe o no hay camino
+     */
+    public Lista<Lista<E>> caminosMasCortos(E origen, E destino, int k) {
+        Lista<Lista<E>> caminos = new ListaDinamica<>();
+        Iterator<Lista<E>> iterador = iteradorCaminosMasCortos(origen, destino);
+
+        for (int i = 0; i < k && iterador.hasNext(); i++) {
+            caminos.insertar(iterador.next());
+        }
+        return caminos;
+    }
+
+    /**
+     * Iterador de los caminos sin ciclos de menor a mayor distancia con el algoritmo de Yen, ver
+     * IteradorCaminosMasCortos. Cada iterador tiene su propio estado, así que varios hilos pueden recorrer caminos
+     * sobre la misma copia.
+     *
+     * @return iterador de caminos, vacío si alguno de los vértices no existe
+     */
+    public Iterator<Lista<E>> iteradorCaminosMasCortos(E origen, E destino) {
+        return new IteradorCaminosMasCortos<>(this, numero(origen), numero(destino));
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.listarEnProfundidad, con una pila explícita.
+     */
+    public Lista<E> listarEnProfundidad() {
+        Lista<E> visitados = new ListaDinamica<>();
+        boolean[] marcados = new boolean[elementos.length];
+        int[] pila = new int[elementos.length];
+        int[] sigArco = new int[elementos.length]; // siguiente arco a probar de cada vértice de la pila
+        int tope, arco;
+
+        for (int inicio = 0; inicio < elementos.length; inicio++) {
+            if (!marcados[inicio]) {
+                marcados[inicio] = true;
+                visitados.insertar(elementos[inicio]);
+                tope = 0;
+                pila[0] = inicio;
+                sigArco[0] = primerArco[inicio];
+                while (tope >= 0) {
+                    arco = sigArco[tope];
+                    if (arco == primerArco[pila[tope] + 1]) {
+                        tope--;
+                    } else {
+                        sigArco[tope]++;
+                        if (!marcados[destinos[arco]]) {
+                            marcados[destinos[arco]] = true;
+                            visitados.insertar(elementos[destinos[arco]]);
+                            tope++;
+                            pila[tope] = destinos[arco];
+                            sigArco[tope] = primerArco[destinos[arco]];
+                        }
+                    }
+                }
+            }
+        }
+        return visitados;
+    }
+
+    /**
+     * Recorrido en anchura de todos los vértices, cada vértice aparece una sola vez en el orden en que se encuentra.
+     */
+    public Lista<E> listarEnAnchura() {
+        Lista<E> visitados = new ListaDinamica<>();
+        boolean[] marcados = new boolean[elementos.length];
+        int[] cola = new int[elementos.length];
+        int frente, fin, num;
+
+        for (int inicio = 0; inicio < elementos.length; inicio++) {
+            if (!marcados[inicio]) {
+                marcados[inicio] = true;
+                frente = 0;
+                fin = 0;
+                cola[fin++] = inicio;
+                while (frente < fin) {
+                    num = cola[frente++];
+                    visitados.insertar(elementos[num]);
+                    for (int arco = primerArco[num]; arco < primerArco[num + 1]; arco++) {
+                        if (!marcados[destinos[arco]]) {
+                            marcados[destinos[arco]] = true;
+                            cola[fin++] = destinos[arco];
+                        }
+                    }
+                }
+            }
+        }
+        return visitados;
+    }
+
+    /**
+     * @return el número del vértice, -1 si no existe
+     */
+    int numero(E elem) {
+        Integer num = elem != null ? numeros.get(elem) : null;
+        return num != null ? num : -1;
+    }
+
+    /**
+     * Devuelve las distancias desde el vértice a todos los vértices. Se guardan las de los últimos
+     * MAX_DISTANCIAS_GUARDADAS orígenes usados. Dijkstra se hace fuera del bloqueo, así una búsqueda larga no hace
+     * esperar a las consultas de otros orígenes, y si dos hilos calculan el mismo origen a la vez queda el primero.
+     */
+    private int[] distanciasDesde(int origen) {
+        int[] dist = distanciasGuardadas(origen);
+        if (dist == null) {
+            dist = distanciasMinimas(origen, -1);
+            synchronized (distanciasDesde) {
+                int[] anterior = distanciasDesde.putIfAbsent(origen, dist);
+                if (anterior != null)
+                    dist = anterior;
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * @return las distancias guardadas desde el origen, o las calculadas hasta el destino sin guardarlas
+     */
+    private int[] distanciasHasta(int origen, int destino) {
+        int[] dist = distanciasGuardadas(origen);
+        return dist != null ? dist : distanciasMinimas(origen, destino);
+    }
+
+    private int[] distanciasGuardadas(int origen) {
+        synchronized (distanciasDesde) {
+            return distanciasDesde.get(origen);
+        }
+    }
+
+    /**
+     * Dijkstra desde el origen, termina después de fijar el destino y los vértices a su misma distancia, como
+     * DigrafoEtiquetado.distanciasMinimas. -1 para calcular todas las distancias.
+     */
+    int[] distanciasMinimas(int origen, int destino) {
+        int[] dist = new int[elementos.length];
+        ColaPrioridadIndexada porVisitar = new ColaPrioridadIndexada(elementos.length);
+        int largo = INFINITO, num;
+        long nuevaDist;
+
+        Arrays.fill(dist, INFINITO);
+        dist[origen] = 0;
+        porVisitar.insertar(origen, 0);
+        while (!porVisitar.estaVacia() && porVisitar.obtenerPrioridadFrente() <= largo) {
+            num = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            if (num == destino) {
+                largo = dist[num];
+            } else {
+                for (int arco = primerArco[num]; arco < primerArco[num + 1]; arco++) {
+                    nuevaDist = (long) dist[num] + etiquetas[arco];
+                    if (nuevaDist < dist[destinos[arco]]) {
+                        dist[destinos[arco]] = (int) nuevaDist;
+                        porVisitar.insertar(destinos[arco], dist[destinos[arco]]);
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Recorrido en anchura desde el origen, termina apenas saca el destino de la cola.
+     */
+    private int[] nivelesMinimos(int origen, int destino) {
+        int[] niveles = new int[elementos.length];
+        int[] cola = new int[elementos.length];
+        int frente = 0, fin = 0, num = -1;
+
+        Arrays.fill(niveles, INFINITO);
+        niveles[origen] = 0;
+        cola[fin++] = origen;
+        while (num != destino && frente < fin) {
+            num = cola[frente++];
+            if (num != destino) {
+                for (int arco = primerArco[num]; arco < primerArco[num + 1]; arco++) {
+                    if (niveles[destinos[arco]] == INFINITO) {
+                        niveles[destinos[arco]] = niveles[num] + 1;
+                        cola[fin++] = destinos[arco];
+                    }
+                }
+            }
+        }
+        return niveles;
+    }
+
+    /**
+     * Igual que DigrafoEtiquetado.armarCamino: recorre en profundidad solo los arcos que están en algún camino
+     * mínimo, en el orden de los adyacentes, y devuelve el primero que llega al destino.
+     */
+    private Lista<E> armarCamino(int origen, int destino, int[] dist, boolean usarEtiquetas) {
+        Lista<E> camino = new ListaDinamica<>();
+
+        if (dist[destino] != INFINITO) {
+            int[] pila = new int[elementos.length];
+            int[] sigArco = new int[elementos.length];
+            boolean[] visitados = new boolean[elementos.length];
+            int tope = 0, arco, num;
+            long nuevaDist;
+
+            pila[0] = origen;
+            sigArco[0] = primerArco[origen];
+            visitados[origen] = true;
+            while (tope >= 0 && pila[tope] != destino) {
+                arco = sigArco[tope];
+                if (arco == primerArco[pila[tope] + 1]) {
+                    tope--;
+                } else {
+                    sigArco[tope]++;
+                    num = destinos[arco];
+                    nuevaDist = (long) dist[pila[tope]] + (usarEtiquetas ? etiquetas[arco] : 1);
+                    if (!visitados[num] && dist[num] <= dist[destino] && dist[num] == nuevaDist) {
+                        visitados[num] = true;
+                        tope++;
+                        pila[tope] = num;
+                        sigArco[tope] = primerArco[num];
+                    }
+                }
+            }
+            for (int i = 0; i <= tope; i++)
+                camino.insertar(elementos[pila[i]]);
+        }
+        return camino;
+    }
+}
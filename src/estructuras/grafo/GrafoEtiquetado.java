@@ -2,8 +2,31 @@ package estructuras.grafo;
 
 import estructuras.lineales.Lista;
 import estructuras.lineales.ListaDinamica;
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
+import estructuras.propositoEspecifico.ConjuntosDisjuntos;
+
+import java.util.Arrays;
 
 public class GrafoEtiquetado<E> extends DigrafoEtiquetado<E> {
+    // componentes conexas por id de vértice. Al insertar se actualizan y al eliminar se descartan, se vuelven a
+    // armar en la siguiente consulta
+    private transient ConjuntosDisjuntos indiceComponentes;
+    // distancias desde los vértices de referencia para A*, se descartan cuando cambia el grafo
+    private transient PuntosReferencia<E> puntosReferencia;
+
+    @Override
+    protected void grafoModificado() {
+        super.grafoModificado();
+        puntosReferencia = null;
+    }
+
+    @Override
+    public boolean insertarVertice(E elem) {
+        boolean inserto = super.insertarVertice(elem);
+        if (inserto && indiceComponentes != null)
+            indiceComponentes.agregar(); // el nuevo vértice tiene el último id
+        return inserto;
+    }
 
     @Override
     public boolean insertarArco(E vert1, E vert2, int etiqueta) {
@@ -15,18 +38,28 @@ public class GrafoEtiquetado<E> extends DigrafoEtiquetado<E> {
         if (nodoVert1 != null && nodoVert2 != null) {
             if (nodoVert1 == nodoVert2) { // por si es un lazo
                 if (!existeArco(nodoVert1, nodoVert2)) {
-                    nodoVert1.setPrimerAdy(new NodoAdy<>(nodoVert2, nodoVert1.getPrimerAdy(), etiqueta));
+                    agregarArco(nodoVert1, nodoVert2, etiqueta);
                     inserto = true;
                 }
             } else {
-                if (!existeArco(nodoVert1, nodoVert2)) {
-                    nodoVert1.setPrimerAdy(new NodoAdy<>(nodoVert2, nodoVert1.getPrimerAdy(), etiqueta));
+                NodoAdy<E> ida = nodoVert1.buscarAdyacente(nodoVert2);
+                NodoAdy<E> vuelta = nodoVert2.buscarAdyacente(nodoVert1);
+                if (ida == null) {
+                    ida = agregarArco(nodoVert1, nodoVert2, etiqueta);
                     inserto = true;
                 }
-                if (!existeArco(nodoVert2, nodoVert1)) {
-                    nodoVert2.setPrimerAdy(new NodoAdy<>(nodoVert1, nodoVert2.getPrimerAdy(), etiqueta));
+                if (vuelta == null) {
+                    vuelta = agregarArco(nodoVert2, nodoVert1, etiqueta);
                     inserto = true;
                 }
+                // cada sentido conoce al otro para quitar el arco en O(1)
+                ida.setGemelo(vuelta);
+                vuelta.setGemelo(ida);
+            }
+            if (inserto) {
+                grafoModificado();
+                if (indiceComponentes != null)
+                    indiceComponentes.unir(nodoVert1.getId(), nodoVert2.getId());
             }
         }
 
@@ -38,7 +71,7 @@ public class GrafoEtiquetado<E> extends DigrafoEtiquetado<E> {
         boolean elimino = false;
         NodoVert<E> vert, vertAnt;
 
-        if (elem != null && inicio != null) {
+        if (elem != null && verticesPorElem.containsKey(elem)) {
             // busco el vértice y lo quito de la lista de vértices
             if (inicio.getElem().equals(elem)) { // si está en el inicio
                 vert = inicio;
@@ -58,12 +91,17 @@ public class GrafoEtiquetado<E> extends DigrafoEtiquetado<E> {
                 }
             }
             if (vert != null) { // si lo encontró y lo eliminó de la lista de vertices
+                quitarDelIndice(vert);
+                // cada arco se quita de la lista del otro vértice en O(1) con su gemelo
                 NodoAdy<E> ady = vert.getPrimerAdy();
                 while (ady != null) {
-                    eliminarArco(ady.getVertice(), elem);
+                    if (ady.getGemelo() != null)
+                        quitarAdyacente(ady.getVertice(), ady.getGemelo());
                     ady = ady.getSigAdy();
                 }
                 elimino = true;
+                grafoModificado();
+                indiceComponentes = null; // cambiaron los ids y se pueden haber separado componentes
             }
         }
 
@@ -73,175 +111,198 @@ public class GrafoEtiquetado<E> extends DigrafoEtiquetado<E> {
     @Override
     public boolean eliminarArco(E vert1, E vert2) {
         boolean elimino = false;
-        NodoVert<E> vertEliminado, nodoVert;
-        if (vert1 != null && vert2 != null) {
-            nodoVert = buscarPrimerVertice(vert1, vert2);
-            if (nodoVert != null) {
-                if (nodoVert.getElem().equals(vert1)) {
-                    vertEliminado = eliminarArco(nodoVert, vert2);
-                    if (vertEliminado != null) {
-                        eliminarArco(vertEliminado, vert1);
-                        elimino = true;
-                    }
-                } else if (nodoVert.getElem().equals(vert2)) {
-                    vertEliminado = eliminarArco(nodoVert, vert1);
-                    if (vertEliminado != null) {
-                        eliminarArco(vertEliminado, vert2);
-                        elimino = true;
-                    }
-                }
+        NodoVert<E>[] vertices = buscarDosVertices(vert1, vert2);
+        NodoAdy<E> ady;
+
+        if (vertices[0] != null && vertices[1] != null) {
+            ady = vertices[0].buscarAdyacente(vertices[1]);
+            if (ady != null) {
+                quitarAdyacente(vertices[0], ady);
+                if (ady.getGemelo() != null)
+                    quitarAdyacente(vertices[1], ady.getGemelo());
+                elimino = true;
             }
         }
+        if (elimino) {
+            grafoModificado();
+            indiceComponentes = null;
+        }
         return elimino;
     }
 
+    /**
+     * Cambia la etiqueta del arco en ambos sentidos.
+     */
     @Override
-    public boolean existeArco(E vert1, E vert2) {
-        boolean existe = false;
-        NodoVert<E> vert = buscarPrimerVertice(vert1, vert2);
-        NodoVert<E> otroVert = null;
-
-        if (vert != null) {
-            E otroElem = (vert.getElem().equals(vert1)) ? vert2 : vert1;
-            // busco el vertice adyacente
-            NodoAdy<E> ady = vert.getPrimerAdy();
-            while (otroVert == null && ady != null) {
-                if (ady.getVertice().getElem().equals(otroElem)) {
-                    otroVert = ady.getVertice();
-                }
-                ady = ady.getSigAdy();
-            }
+    public boolean modificarEtiqueta(E vert1, E vert2, int etiqueta) {
+        NodoVert<E>[] vertices = buscarDosVertices(vert1, vert2);
+        boolean modifico = false;
 
-            // y si lo encontro busca el otro arco
-            if (otroVert != null) {
-                ady = otroVert.getPrimerAdy();
-                while (!existe && ady != null) {
-                    existe = ady.getVertice().getElem().equals(vert.getElem());
-                    ady = ady.getSigAdy();
-                }
-            }
+        if (vertices[0] != null && vertices[1] != null) {
+            modifico = modificarEtiqueta(vertices[0], vertices[1], etiqueta);
+            if (vertices[0] != vertices[1])
+                modifico = modificarEtiqueta(vertices[1], vertices[0], etiqueta) || modifico;
+            if (modifico)
+                grafoModificado();
         }
+        return modifico;
+    }
 
-        return existe;
+    @Override
+    public void vaciar() {
+        super.vaciar();
+        indiceComponentes = null;
     }
 
+    /**
+     * En un grafo no dirigido hay camino entre dos vértices si están en la misma componente conexa, se responde con
+     * el índice de componentes en casi O(1).
+     */
     @Override
-    public Lista<E> caminoMasCorto(E origen, E destino1, E destino2) {
-        NodoVert<E>[] vertices = buscarTresVertices(origen, destino1, destino2);
-        NodoVert<E> vertOrigen = vertices[0];
-        NodoVert<E> vertDestino1 = vertices[1];
-        NodoVert<E> vertDestino2 = vertices[2];
-        ListaDinamica<E> visitados = new ListaDinamica<>();
-        ListaDinamica<E> camino = new ListaDinamica<>();
-        int[] distanciaMinima = {Integer.MAX_VALUE}; // Se usa un arreglo para mantener la referencia y poder modificarlo.
-        boolean[] bandera = {false}; // si paso por el primer destino.
-
-        if (vertOrigen != null && vertDestino1 != null && vertDestino2 != null) {
-            if (destino1 != destino2) {
-                camino = caminoMasCorto(
-                        vertOrigen,
-                        vertDestino1,
-                        vertDestino2,
-                        visitados,
-                        0,
-                        camino,
-                        distanciaMinima,
-                        bandera);
-            } else {
-                camino = caminoMasCorto(vertOrigen, vertDestino1, visitados, 0, camino, distanciaMinima);
+    public boolean existeCamino(E origen, E destino) {
+        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
+        return vertices[0] != null && vertices[1] != null
+                && obtenerIndiceComponentes().mismoConjunto(vertices[0].getId(), vertices[1].getId());
+    }
+
+    /**
+     * Devuelve las componentes conexas del grafo. Las componentes y los vértices de cada una están en el orden de la
+     * lista de vértices.
+     *
+     * @return lista con una lista de vértices por cada componente
+     */
+    public Lista<Lista<E>> componentes() {
+        Lista<Lista<E>> componentes = new ListaDinamica<>();
+        ConjuntosDisjuntos indice = obtenerIndiceComponentes();
+        Lista<E>[] porRepresentante = new Lista[cantVertices];
+        NodoVert<E> vert = inicio;
+        int raiz;
+
+        while (vert != null) {
+            raiz = indice.buscar(vert.getId());
+            if (porRepresentante[raiz] == null) {
+                porRepresentante[raiz] = new ListaDinamica<>();
+                componentes.insertar(porRepresentante[raiz]);
             }
+            porRepresentante[raiz].insertar(vert.getElem());
+            vert = vert.getSigVertice();
         }
-        return camino;
+        return componentes;
     }
 
-    private ListaDinamica<E> caminoMasCorto(NodoVert<E> vertice,
-                                            NodoVert<E> destino1,
-                                            NodoVert<E> destino2,
-                                            ListaDinamica<E> visitados,
-                                            int distActual,
-                                            ListaDinamica<E> camino,
-                                            int[] distMin,
-                                            boolean[] bandera) {
-        if (distActual < distMin[0]) {
-            visitados.insertar(vertice.getElem());
-
-            if (bandera[0] && vertice == destino2) { // si llego al final
-                camino = visitados.clone();
-                distMin[0] = distActual;
-            } else {
-                if (!bandera[0] && vertice == destino1) { // si llego a la mitad
-                    bandera[0] = true;
-                }
-                NodoAdy<E> ady = vertice.getPrimerAdy();
+    /**
+     * Devuelve el índice de componentes, si fue descartado lo vuelve a armar en O(V + E).
+     */
+    private ConjuntosDisjuntos obtenerIndiceComponentes() {
+        if (indiceComponentes == null) {
+            ConjuntosDisjuntos indice = new ConjuntosDisjuntos(cantVertices);
+            NodoAdy<E> ady;
+            for (int id = 0; id < cantVertices; id++)
+                indice.agregar();
+            for (int id = 0; id < cantVertices; id++) {
+                ady = verticesPorId[id].getPrimerAdy();
                 while (ady != null) {
-                    if (!visitados.existe(ady.getVertice().getElem())) { // mientras no haya pasado por el mismo vertice
-
-                        camino = caminoMasCorto(
-                                ady.getVertice(),
-                                destino1,
-                                destino2,
-                                visitados,
-                                distActual + ady.getEtiqueta(),
-                                camino,
-                                distMin,
-                                bandera);
-
-                        if (bandera[0] && ady.getVertice() == destino1) // por si volvio de la mitad, ese camino no sirve
-                            bandera[0] = false;
-                    }
+                    indice.unir(id, ady.getVertice().getId());
                     ady = ady.getSigAdy();
                 }
             }
-
-            visitados.eliminar(visitados.longitud());
+            indiceComponentes = indice;
         }
-        return camino;
+        return indiceComponentes;
+    }
+
+    /**
+     * Elige la cantidad de vértices de referencia dada y calcula las distancias desde cada uno. Mientras el grafo no
+     * cambie, caminoMasCorto usa A* con esas distancias como cota inferior y fija muchos menos vértices que Dijkstra.
+     *
+     * @param cantidad cantidad de vértices de referencia, entre 4 y 16 suele ser suficiente
+     */
+    public void precalcularPuntosReferencia(int cantidad) {
+        puntosReferencia = new PuntosReferencia<>(this, cantidad);
+    }
+
+    /**
+     * @return la cantidad de vértices de referencia que usa A*, 0 si no están calculados
+     */
+    public int cantidadPuntosReferencia() {
+        return puntosReferencia != null ? puntosReferencia.cantidad() : 0;
     }
 
     @Override
-    public Lista<E> caminoMasLargo(E origen, E destino) {
-        NodoVert<E>[] vertices = buscarDosVertices(origen, destino);
-        NodoVert<E> vertOrigen = vertices[0];
-        NodoVert<E> vertDestino = vertices[1];
-        ListaDinamica<E> vertVisitados = new ListaDinamica<>();
-        ListaDinamica<E> camino = new ListaDinamica<>();
-        int[] distanciaMaxima = {Integer.MIN_VALUE};
-
-        if (vertOrigen != null && vertDestino != null) {
-            camino = caminoMasLargo(vertOrigen, vertDestino, vertVisitados, 0, camino, distanciaMaxima);
+    protected ListaDinamica<E> caminoMasCorto(NodoVert<E> origen, NodoVert<E> destino) {
+        ListaDinamica<E> camino;
+        if (puntosReferencia != null) {
+            int[] dist = distanciasAEstrella(origen, destino);
+            int distDestino = dist[destino.getId()];
+            camino = armarCamino(origen, destino, dist, null, distDestino, distDestino, true);
+        } else {
+            camino = super.caminoMasCorto(origen, destino);
         }
         return camino;
     }
 
-    private ListaDinamica<E> caminoMasLargo(NodoVert<E> vertice,
-                                            NodoVert<E> destino,
-                                            ListaDinamica<E> vertVisitados,
-                                            int distActual,
-                                            ListaDinamica<E> camino,
-                                            int[] distMax) {
-        vertVisitados.insertar(vertice.getElem());
-        if (vertice == destino) { // si llego al destino, los vertices visitados es un posible camino
-            if (distActual > distMax[0]) {
-                camino = vertVisitados.clone();
-                distMax[0] = distActual;
-            }
-        } else { // mientras sea cualquier vertice menos el destino
-            NodoAdy<E> ady = vertice.getPrimerAdy();
-            while (ady != null) {
-                if (!vertVisitados.existe(ady.getVertice().getElem())) {
-                    camino = caminoMasLargo(
-                            ady.getVertice(),
-                            destino,
-                            vertVisitados,
-                            distActual + ady.getEtiqueta(),
-                            camino,
-                            distMax);
+    /**
+     * A* desde el origen con la cota de los vértices de referencia. Como la cota es consistente, cada vértice que
+     * sale de la cola tiene su distancia definitiva. Después de fijar el destino se siguen fijando los vértices con la
+     * misma estimación, para que estén todos los que forman algún camino mínimo y armarCamino elija el mismo camino
+     * que con Dijkstra.
+     *
+     * @return distancias desde el origen por id, INFINITO para los vértices que no se fijaron
+     */
+    private int[] distanciasAEstrella(NodoVert<E> origen, NodoVert<E> destino) {
+        int[] dist = new int[cantVertices];
+        boolean[] fijados = new boolean[cantVertices];
+        ColaPrioridadIndexada porVisitar = new ColaPrioridadIndexada(cantVertices);
+        int idDestino = destino.getId(), largo = INFINITO;
+        NodoAdy<E> ady;
+        int id, idAdy;
+        long nuevaDist;
+
+        Arrays.fill(dist, INFINITO);
+        dist[origen.getId()] = 0;
+        porVisitar.insertar(origen.getId(), estimacion(0, origen.getId(), idDestino));
+        while (!porVisitar.estaVacia() && porVisitar.obtenerPrioridadFrente() <= largo) {
+            id = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            fijados[id] = true;
+            verticesFijados++;
+            if (id == idDestino) {
+                largo = dist[id];
+            } else {
+                ady = verticesPorId[id].getPrimerAdy();
+                while (ady != null) {
+                    idAdy = ady.getVertice().getId();
+                    nuevaDist = (long) dist[id] + ady.getEtiqueta();
+                    if (!fijados[idAdy] && nuevaDist < dist[idAdy]) {
+                        dist[idAdy] = (int) nuevaDist;
+                        porVisitar.insertar(idAdy, estimacion(dist[idAdy], idAdy, idDestino));
+                    }
+                    ady = ady.getSigAdy();
                 }
-                ady = ady.getSigAdy();
             }
         }
-        vertVisitados.eliminar(vertVisitados.longitud());
+        for (id = 0; id < cantVertices; id++) {
+            if (!fijados[id])
+                dist[id] = INFINITO;
+        }
+        return dist;
+    }
 
-        return camino;
+    private int estimacion(int dist, int id, int idDestino) {
+        return (int) Math.min((long) dist + puntosReferencia.cotaInferior(id, idDestino), INFINITO - 1);
+    }
+
+    @Override
+    public boolean existeArco(E vert1, E vert2) {
+        NodoVert<E>[] vertices = buscarDosVertices(vert1, vert2);
+        return existeArco(vertices[0], vertices[1]) && existeArco(vertices[1], vertices[0]);
+    }
+
+    /**
+     * En el grafo no dirigido el camino más largo no repite vértices.
+     */
+    @Override
+    protected boolean caminoMasLargoPorArcos() {
+        return false;
     }
 }
@@ -0,0 +1,388 @@
+package estructuras.grafo;
+
+import estructuras.grafo.DigrafoEtiquetado.NodoAdy;
+import estructuras.grafo.DigrafoEtiquetado.NodoVert;
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Grafo etiquetado que se modifica y se consulta con números de vértice en lugar de elementos. Los vértices se
+ * numeran de 0 a V - 1 y el elemento de cada uno se guarda aparte, solo se usa para pasar de elemento a número y al
+ * revés. Los adyacentes de cada vértice están en dos arreglos de enteros (destinos y etiquetas) que crecen al
+ * insertar arcos, en el orden en que se insertaron.
+ * Las búsquedas de caminos reutilizan los arreglos de distancias, padres y la cola de prioridad entre consultas, y
+ * los caminos se devuelven como arreglos de números de vértice, así una consulta no crea objetos salvo el arreglo
+ * del resultado (o ninguno si se pasa el arreglo donde escribirlo). Por eso no se puede consultar desde varios hilos
+ * a la vez, para eso está GrafoCompacto.
+ * Al eliminar un vértice, el último vértice pasa a tener su número, igual que los ids de DigrafoEtiquetado.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+public final class GrafoEtiquetadoEnteros<E> {
+    private static final int INFINITO = DigrafoEtiquetado.INFINITO;
+    private static final int CAPACIDAD_INICIAL = 10;
+
+    private final boolean noDirigido;       // si cada arco se guarda en ambos sentidos
+    private E[] elementos;                  // elemento de cada vértice
+    private final HashMap<E, Integer> numeros;
+    private int[][] destinos, etiquetas;    // adyacentes de cada vértice, las primeras grados[v] posiciones
+    private int[] grados;
+    private int cantVertices;
+    // estado de las búsquedas, dist y padre solo valen en los vértices con marcas[v] == marca
+    private int[] dist, padre, marcas;
+    private int marca;
+    private ColaPrioridadIndexada porVisitar;
+
+    /**
+     * Crea un grafo vacío.
+     *
+     * @param noDirigido true para que cada arco se guarde en ambos sentidos como en GrafoEtiquetado, false para un
+     *                   digrafo
+     */
+    public GrafoEtiquetadoEnteros(boolean noDirigido) {
+        this.noDirigido = noDirigido;
+        this.numeros = new HashMap<>();
+        this.cantVertices = 0;
+        reservar(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Copia el grafo en O(V + E). Los vértices se numeran en el orden de la lista de vértices y los adyacentes
+     * quedan en el mismo orden. Si es un GrafoEtiquetado la copia es no dirigida.
+     *
+     * @param grafo grafo a copiar
+     */
+    GrafoEtiquetadoEnteros(DigrafoEtiquetado<E> grafo) {
+        int[] numeroPorId = new int[grafo.cantVertices];
+        NodoVert<E> vert;
+        NodoAdy<E> ady;
+        int num;
+
+        this.noDirigido = grafo instanceof GrafoEtiquetado;
+        this.numeros = new HashMap<>();
+        this.cantVertices = 0;
+        reservar(Math.max(grafo.cantVertices, CAPACIDAD_INICIAL));
+        for (vert = grafo.inicio; vert != null; vert = vert.getSigVertice())
+            numeroPorId[vert.getId()] = insertarVertice(vert.getElem());
+        for (vert = grafo.inicio; vert != null; vert = vert.getSigVertice()) {
+            num = numeroPorId[vert.getId()];
+            for (ady = vert.getPrimerAdy(); ady != null; ady = ady.getSigAdy())
+                agregarAdyacente(num, numeroPorId[ady.getVertice().getId()], ady.getEtiqueta());
+        }
+    }
+
+    private void reservar(int capacidad) {
+        int anterior = elementos == null ? 0 : elementos.length;
+        elementos = elementos == null ? (E[]) new Object[capacidad] : Arrays.copyOf(elementos, capacidad);
+        destinos = destinos == null ? new int[capacidad][] : Arrays.copyOf(destinos, capacidad);
+        etiquetas = etiquetas == null ? new int[capacidad][] : Arrays.copyOf(etiquetas, capacidad);
+        grados = grados == null ? new int[capacidad] : Arrays.copyOf(grados, capacidad);
+        dist = new int[capacidad];
+        padre = new int[capacidad];
+        marcas = new int[capacidad];
+        marca = 0;
+        porVisitar = new ColaPrioridadIndexada(capacidad);
+        for (int v = anterior; v < capacidad; v++) {
+            destinos[v] = new int[2];
+            etiquetas[v] = new int[2];
+        }
+    }
+
+    public int cantidadVertices() {
+        return cantVertices;
+    }
+
+    /**
+     * @return el número del vértice, -1 si no existe
+     */
+    public int numero(E elem) {
+        Integer num = elem != null ? numeros.get(elem) : null;
+        return num != null ? num : -1;
+    }
+
+    /**
+     * @return el elemento del vértice con ese número, null si no existe
+     */
+    public E elemento(int num) {
+        return existeVertice(num) ? elementos[num] : null;
+    }
+
+    public boolean existeVertice(int num) {
+        return num >= 0 && num < cantVertices;
+    }
+
+    /**
+     * Inserta el vértice con el siguiente número libre.
+     *
+     * @return el número del vértice nuevo, -1 si el elemento es nulo o ya existe
+     */
+    public int insertarVertice(E elem) {
+        int num = -1;
+        if (elem != null && !numeros.containsKey(elem)) {
+            if (cantVertices == elementos.length)
+                reservar(elementos.length * 2);
+            num = cantVertices++;
+            elementos[num] = elem;
+            grados[num] = 0;
+            numeros.put(elem, num);
+        }
+        return num;
+    }
+
+    /**
+     * Elimina el vértice y sus arcos. El último vértice pasa a tener el número del eliminado. En el grafo no
+     * dirigido es O(grado de ambos vértices) por arco, en el digrafo hay que recorrer todos los arcos, O(V + E).
+     *
+     * @return verdadero si el vértice existía y falso en caso contrario
+     */
+    public boolean eliminarVertice(int num) {
+        boolean existe = existeVertice(num);
+        if (existe) {
+            int ultimo = cantVertices - 1;
+
+            // quito los arcos que llegan al vértice
+            if (noDirigido) {
+                for (int i = 0; i < grados[num]; i++) {
+                    if (destinos[num][i] != num)
+                        quitarAdyacente(destinos[num][i], num);
+                }
+            } else {
+                for (int v = 0; v < cantVertices; v++)
+                    quitarAdyacente(v, num);
+            }
+            numeros.remove(elementos[num]);
+
+            // el último ocupa su lugar y los arcos que llegaban al último ahora llegan a num
+            if (num != ultimo) {
+                int[] destinosLibres = destinos[num], etiquetasLibres = etiquetas[num];
+                elementos[num] = elementos[ultimo];
+                destinos[num] = destinos[ultimo];
+                etiquetas[num] = etiquetas[ultimo];
+                grados[num] = grados[ultimo];
+                destinos[ultimo] = destinosLibres;
+                etiquetas[ultimo] = etiquetasLibres;
+                numeros.put(elementos[num], num);
+                if (noDirigido) {
+                    for (int i = 0; i < grados[num]; i++)
+                        renumerar(destinos[num][i] == ultimo ? num : destinos[num][i], ultimo, num);
+                } else {
+                    for (int v = 0; v < ultimo; v++)
+                        renumerar(v, ultimo, num);
+                }
+            }
+            elementos[ultimo] = null;
+            grados[ultimo] = 0;
+            cantVertices--;
+        }
+        return existe;
+    }
+
+    private void renumerar(int v, int anterior, int nuevo) {
+        for (int i = 0; i < grados[v]; i++) {
+            if (destinos[v][i] == anterior)
+                destinos[v][i] = nuevo;
+        }
+    }
+
+    /**
+     * Inserta el arco, en el grafo no dirigido en ambos sentidos.
+     *
+     * @return verdadero si insertó el arco, falso si algún vértice no existe o el arco ya existía
+     */
+    public boolean insertarArco(int origen, int destino, int etiqueta) {
+        boolean inserto = existeVertice(origen) && existeVertice(destino) && posicion(origen, destino) == -1;
+        if (inserto) {
+            agregarAdyacente(origen, destino, etiqueta);
+            if (noDirigido && origen != destino)
+                agregarAdyacente(destino, origen, etiqueta);
+        }
+        return inserto;
+    }
+
+    private void agregarAdyacente(int origen, int destino, int etiqueta) {
+        int grado = grados[origen];
+        if (grado == destinos[origen].length) {
+            destinos[origen] = Arrays.copyOf(destinos[origen], grado * 2);
+            etiquetas[origen] = Arrays.copyOf(etiquetas[origen], grado * 2);
+        }
+        destinos[origen][grado] = destino;
+        etiquetas[origen][grado] = etiqueta;
+        grados[origen]++;
+    }
+
+    /**
+     * @return verdadero si eliminó el arco y falso si no existía
+     */
+    public boolean eliminarArco(int origen, int destino) {
+        boolean elimino = existeVertice(origen) && existeVertice(destino) && quitarAdyacente(origen, destino);
+        if (elimino && noDirigido && origen != destino)
+            quitarAdyacente(destino, origen);
+        return elimino;
+    }
+
+    /**
+     * Quita el arco corriendo los siguientes adyacentes, para que los demás conserven su orden.
+     */
+    private boolean quitarAdyacente(int origen, int destino) {
+        int pos = posicion(origen, destino);
+        if (pos != -1) {
+            int cantMover = grados[origen] - pos - 1;
+            System.arraycopy(destinos[origen], pos + 1, destinos[origen], pos, cantMover);
+            System.arraycopy(etiquetas[origen], pos + 1, etiquetas[origen], pos, cantMover);
+            grados[origen]--;
+        }
+        return pos != -1;
+    }
+
+    private int posicion(int origen, int destino) {
+        int pos = -1;
+        for (int i = 0; pos == -1 && i < grados[origen]; i++) {
+            if (destinos[origen][i] == destino)
+                pos = i;
+        }
+        return pos;
+    }
+
+    public boolean existeArco(int origen, int destino) {
+        return existeVertice(origen) && existeVertice(destino) && posicion(origen, destino) != -1;
+    }
+
+    /**
+     * @return la etiqueta del arco, -1 si no existe
+     */
+    public int etiqueta(int origen, int destino) {
+        int pos = existeVertice(origen) && existeVertice(destino) ? posicion(origen, destino) : -1;
+        return pos != -1 ? etiquetas[origen][pos] : -1;
+    }
+
+    /**
+     * Cambia la etiqueta del arco, en el grafo no dirigido en ambos sentidos.
+     *
+     * @return verdadero si el arco existe y falso en caso contrario
+     */
+    public boolean modificarEtiqueta(int origen, int destino, int etiqueta) {
+        int pos = existeVertice(origen) && existeVertice(destino) ? posicion(origen, destino) : -1;
+        if (pos != -1) {
+            etiquetas[origen][pos] = etiqueta;
+            if (noDirigido)
+                etiquetas[destino][posicion(destino, origen)] = etiqueta;
+        }
+        return pos != -1;
+    }
+
+    /**
+     * @return cantidad de arcos que salen del vértice, -1 si no existe
+     */
+    public int grado(int num) {
+        return existeVertice(num) ? grados[num] : -1;
+    }
+
+    /**
+     * Copia los números de los adyacentes del vértice en el arreglo, en orden.
+     *
+     * @param adyacentes arreglo con lugar para al menos grado(num) números
+     * @return cantidad de adyacentes copiados, -1 si el vértice no existe
+     */
+    public int adyacentes(int num, int[] adyacentes) {
+        int grado = grado(num);
+        if (grado > 0)
+            System.arraycopy(destinos[num], 0, adyacentes, 0, grado);
+        return grado;
+    }
+
+    /**
+     * @return la suma de las etiquetas del camino más corto, -1 si algún vértice no existe o no hay camino
+     */
+    public int distanciaMinima(int origen, int destino) {
+        int distancia = -1;
+        if (existeVertice(origen) && existeVertice(destino) && buscar(origen, destino))
+            distancia = dist[destino];
+        return distancia;
+    }
+
+    /**
+     * Busca el camino de menor distancia con Dijkstra y lo escribe en el arreglo, desde el origen hasta el destino.
+     * No crea objetos. Si hay más de un camino mínimo devuelve alguno de ellos, no necesariamente el mismo que
+     * GrafoEtiquetado.
+     *
+     * @param camino arreglo con lugar para al menos cantidadVertices() números
+     * @return cantidad de vértices del camino, 0 si algún vértice no existe o no hay camino
+     */
+    public int caminoMasCorto(int origen, int destino, int[] camino) {
+        int largo = 0;
+        if (existeVertice(origen) && existeVertice(destino) && buscar(origen, destino)) {
+            for (int v = destino; v != -1; v = padre[v])
+                largo++;
+            int pos = largo;
+            for (int v = destino; v != -1; v = padre[v])
+                camino[--pos] = v;
+        }
+        return largo;
+    }
+
+    /**
+     * Igual que caminoMasCorto(origen, destino, camino) pero devuelve un arreglo nuevo del largo justo.
+     *
+     * @return los números de los vértices del camino, vacío si algún vértice no existe o no hay camino
+     */
+    public int[] caminoMasCorto(int origen, int destino) {
+        int[] camino = new int[0];
+        if (existeVertice(origen) && existeVertice(destino) && buscar(origen, destino)) {
+            int largo = 0;
+            for (int v = destino; v != -1; v = padre[v])
+                largo++;
+            camino = new int[largo];
+            for (int v = destino; v != -1; v = padre[v])
+                camino[--largo] = v;
+        }
+        return camino;
+    }
+
+    /**
+     * Dijkstra desde el origen que termina al fijar el destino. En lugar de llenar dist en cada búsqueda, cada
+     * búsqueda usa una marca nueva y los vértices con otra marca se consideran no alcanzados.
+     *
+     * @return verdadero si llegó al destino
+     */
+    private boolean buscar(int origen, int destino) {
+        boolean llego = false;
+        int v, w;
+        long nuevaDist;
+
+        nuevaMarca();
+        marcas[origen] = marca;
+        dist[origen] = 0;
+        padre[origen] = -1;
+        porVisitar.insertar(origen, 0);
+        while (!llego && !porVisitar.estaVacia()) {
+            v = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            if (v == destino) {
+                llego = true;
+            } else {
+                for (int i = 0; i < grados[v]; i++) {
+                    w = destinos[v][i];
+                    nuevaDist = (long) dist[v] + etiquetas[v][i];
+                    if (nuevaDist < INFINITO && (marcas[w] != marca || nuevaDist < dist[w])) {
+                        marcas[w] = marca;
+                        dist[w] = (int) nuevaDist;
+                        padre[w] = v;
+                        porVisitar.insertar(w, dist[w]);
+                    }
+                }
+            }
+        }
+        porVisitar.vaciar();
+        return llego;
+    }
+
+    private void nuevaMarca() {
+        if (marca == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            marca = 0;
+        }
+        marca++;
+    }
+}
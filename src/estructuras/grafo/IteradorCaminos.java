@@ -0,0 +1,122 @@
+package estructuras.grafo;
+
+import estructuras.grafo.DigrafoEtiquetado.NodoAdy;
+import estructuras.grafo.DigrafoEtiquetado.NodoVert;
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Recorre uno por uno los caminos sin ciclos desde un vértice origen a un vértice destino, en el mismo orden que
+ * DigrafoEtiquetado.caminosPosibles. El recorrido en profundidad se hace con una pila explícita y cada camino se
+ * busca recién cuando se lo pide, así que la memoria usada no depende de la cantidad de caminos.
+ * El grafo no se debe modificar mientras se recorren los caminos.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+class IteradorCaminos<E> implements Iterator<Lista<E>> {
+    private final NodoVert<E> destino;
+    private final NodoVert<E>[] pila;
+    private final NodoAdy<E>[] sigAdy; // siguiente adyacente a probar de cada vértice de la pila
+    private final long[] distPila;     // distancia desde el origen de cada vértice de la pila
+    private final boolean[] enCamino;
+    private final int maxCaminos, maxArcos, maxDistancia;
+    private int tope, devueltos;
+    private Lista<E> siguiente;
+    private boolean buscado;
+
+    /**
+     * @param origen       vértice origen, o null si no existe
+     * @param destino      vértice destino, o null si no existe
+     * @param cantVertices cantidad de vértices del grafo
+     * @param maxCaminos   cantidad máxima de caminos a devolver
+     * @param maxArcos     cantidad máxima de arcos de cada camino
+     * @param maxDistancia suma máxima de las etiquetas de cada camino
+     */
+    IteradorCaminos(NodoVert<E> origen,
+                    NodoVert<E> destino,
+                    int cantVertices,
+                    int maxCaminos,
+                    int maxArcos,
+                    int maxDistancia) {
+        this.destino = destino;
+        this.pila = new NodoVert[cantVertices];
+        this.sigAdy = new NodoAdy[cantVertices];
+        this.distPila = new long[cantVertices];
+        this.enCamino = new boolean[cantVertices];
+        this.maxCaminos = maxCaminos;
+        this.maxArcos = maxArcos;
+        this.maxDistancia = maxDistancia;
+        this.devueltos = 0;
+        this.tope = -1;
+        this.buscado = false;
+
+        if (origen != null && destino != null) {
+            apilar(origen, 0);
+            if (origen == destino) { // el unico camino es el propio vértice
+                siguiente = armarCamino();
+                buscado = true;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!buscado) {
+            siguiente = devueltos < maxCaminos ? buscarSiguiente() : null;
+            buscado = true;
+        }
+        return siguiente != null && devueltos < maxCaminos;
+    }
+
+    @Override
+    public Lista<E> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        buscado = false;
+        devueltos++;
+        return siguiente;
+    }
+
+    private Lista<E> buscarSiguiente() {
+        Lista<E> camino = null;
+        NodoAdy<E> ady;
+        NodoVert<E> vert;
+        long nuevaDist;
+
+        while (camino == null && tope >= 0) {
+            ady = sigAdy[tope];
+            if (pila[tope] == destino || ady == null) { // no se sigue después del destino
+                enCamino[pila[tope].getId()] = false;
+                tope--;
+            } else {
+                sigAdy[tope] = ady.getSigAdy();
+                vert = ady.getVertice();
+                nuevaDist = distPila[tope] + ady.getEtiqueta();
+                if (!enCamino[vert.getId()] && tope < maxArcos && nuevaDist <= maxDistancia) {
+                    apilar(vert, nuevaDist);
+                    if (vert == destino)
+                        camino = armarCamino();
+                }
+            }
+        }
+        return camino;
+    }
+
+    private void apilar(NodoVert<E> vert, long dist) {
+        tope++;
+        pila[tope] = vert;
+        sigAdy[tope] = vert.getPrimerAdy();
+        distPila[tope] = dist;
+        enCamino[vert.getId()] = true;
+    }
+
+    private Lista<E> armarCamino() {
+        Lista<E> camino = new ListaDinamica<>();
+        for (int i = 0; i <= tope; i++)
+            camino.insertar(pila[i].getElem());
+        return camino;
+    }
+}
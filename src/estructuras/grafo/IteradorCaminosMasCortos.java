@@ -0,0 +1,261 @@
+package estructuras.grafo;
+
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Recorre los caminos sin ciclos desde un vértice origen a un vértice destino de menor a mayor distancia, con el
+ * algoritmo de Yen. El primer camino es el de caminoMasCorto. Cada camino siguiente se obtiene desviando alguno de
+ * los ya devueltos: para cada vértice v del último camino se busca con Dijkstra el camino mínimo de v al destino sin
+ * pasar por los vértices anteriores a v ni por los arcos que ya usaron los caminos devueltos con el mismo comienzo.
+ * Así cada camino cuesta a lo sumo V búsquedas de Dijkstra, O(V (E + V log V)), sin importar cuántos caminos sin
+ * ciclos haya. Los candidatos con la misma distancia salen en el orden en que se encontraron.
+ * Recorre los arreglos de una copia inmutable del grafo, así que se puede usar sin sincronizar aunque el grafo
+ * original cambie mientras se recorren los caminos.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+class IteradorCaminosMasCortos<E> implements Iterator<Lista<E>> {
+    private static final int INFINITO = DigrafoEtiquetado.INFINITO;
+
+    private final GrafoCompacto<E> grafo;
+    private final int origen, destino;
+    private final ArrayList<Candidato> devueltos;
+    private final PriorityQueue<Candidato> candidatos;
+    private final HashSet<Candidato> encontrados; // caminos devueltos o en candidatos, para no repetirlos
+    // estado de las búsquedas de Dijkstra, se reutiliza entre búsquedas
+    private final int[] dist;
+    private final int[] pila, sigArco;
+    private final boolean[] bloqueados, arcoBloqueado, visitados;
+    private final ColaPrioridadIndexada porVisitar;
+    private long cantEncontrados;
+    private boolean desviado; // si ya se buscaron los desvíos del último camino devuelto
+
+    /**
+     * @param grafo   copia del grafo donde se buscan los caminos
+     * @param origen  número del vértice origen, -1 si no existe
+     * @param destino número del vértice destino, -1 si no existe
+     */
+    IteradorCaminosMasCortos(GrafoCompacto<E> grafo, int origen, int destino) {
+        int n = grafo.cantidadVertices();
+
+        this.grafo = grafo;
+        this.origen = origen;
+        this.destino = destino;
+        this.devueltos = new ArrayList<>();
+        this.candidatos = new PriorityQueue<>();
+        this.encontrados = new HashSet<>();
+        this.dist = new int[n];
+        this.pila = new int[n];
+        this.sigArco = new int[n];
+        this.bloqueados = new boolean[n];
+        this.arcoBloqueado = new boolean[n];
+        this.visitados = new boolean[n];
+        this.porVisitar = new ColaPrioridadIndexada(n);
+        this.cantEncontrados = 0;
+        this.desviado = true;
+
+        if (origen != -1 && destino != -1) {
+            Candidato primero = caminoMinimo(origen, new int[0], new long[0]);
+            if (primero != null)
+                agregarCandidato(primero);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!desviado) {
+            buscarDesvios(devueltos.get(devueltos.size() - 1));
+            desviado = true;
+        }
+        return !candidatos.isEmpty();
+    }
+
+    @Override
+    public Lista<E> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Candidato camino = candidatos.poll();
+        Lista<E> lista = new ListaDinamica<>();
+
+        devueltos.add(camino);
+        desviado = false;
+        for (int num : camino.vertices)
+            lista.insertar(grafo.elementos[num]);
+        return lista;
+    }
+
+    /**
+     * Agrega como candidatos los desvíos del camino desde cada uno de sus vértices, salvo el destino.
+     */
+    private void buscarDesvios(Candidato camino) {
+        int[] vertices = camino.vertices;
+        Candidato desvio;
+
+        for (int i = 0; i < vertices.length - 1; i++) {
+            // no se puede volver a pasar por el comienzo del camino
+            for (int j = 0; j < i; j++)
+                bloqueados[vertices[j]] = true;
+            // ni repetir un arco que ya usó un camino devuelto con el mismo comienzo
+            for (Candidato otro : devueltos) {
+                if (otro.vertices.length > i + 1 && mismoComienzo(otro.vertices, vertices, i))
+                    arcoBloqueado[otro.vertices[i + 1]] = true;
+            }
+
+            desvio = caminoMinimo(vertices[i],
+                    Arrays.copyOf(vertices, i),
+                    Arrays.copyOf(camino.distancias, i));
+            if (desvio != null && !encontrados.contains(desvio))
+                agregarCandidato(desvio);
+
+            Arrays.fill(bloqueados, false);
+            Arrays.fill(arcoBloqueado, false);
+        }
+    }
+
+    private static boolean mismoComienzo(int[] camino1, int[] camino2, int hasta) {
+        boolean mismo = true;
+        for (int j = 0; mismo && j <= hasta; j++)
+            mismo = camino1[j] == camino2[j];
+        return mismo;
+    }
+
+    private void agregarCandidato(Candidato candidato) {
+        candidato.orden = cantEncontrados++;
+        candidatos.add(candidato);
+        encontrados.add(candidato);
+    }
+
+    /**
+     * Dijkstra desde el vértice de desvío hasta el destino evitando los vértices y arcos bloqueados. El camino se
+     * arma como en DigrafoEtiquetado.armarCamino, con el primero en el orden de los adyacentes.
+     *
+     * @param desde      vértice de desvío
+     * @param comienzo   vértices del camino anteriores al desvío
+     * @param distancias distancia desde el origen de cada vértice del comienzo
+     * @return el camino completo, o null si no se llega al destino
+     */
+    private Candidato caminoMinimo(int desde, int[] comienzo, long[] distancias) {
+        Candidato camino = null;
+        int largo = INFINITO, num, numAdy, arco;
+        long nuevaDist, base;
+
+        Arrays.fill(dist, INFINITO);
+        porVisitar.vaciar();
+        dist[desde] = 0;
+        porVisitar.insertar(desde, 0);
+        // después del destino se fijan los vértices a su misma distancia, como en DigrafoEtiquetado.distanciasMinimas
+        while (!porVisitar.estaVacia() && porVisitar.obtenerPrioridadFrente() <= largo) {
+            num = porVisitar.obtenerFrente();
+            porVisitar.eliminarFrente();
+            if (num == destino) {
+                largo = dist[num];
+            } else {
+                for (arco = grafo.primerArco[num]; arco < grafo.primerArco[num + 1]; arco++) {
+                    numAdy = grafo.destinos[arco];
+                    nuevaDist = (long) dist[num] + grafo.etiquetas[arco];
+                    if (sePuedeUsar(num, desde, numAdy) && nuevaDist < dist[numAdy]) {
+                        dist[numAdy] = (int) nuevaDist;
+                        porVisitar.insertar(numAdy, dist[numAdy]);
+                    }
+                }
+            }
+        }
+
+        if (largo != INFINITO) {
+            int tope = 0;
+
+            Arrays.fill(visitados, false);
+            pila[0] = desde;
+            sigArco[0] = grafo.primerArco[desde];
+            visitados[desde] = true;
+            while (pila[tope] != destino) { // siempre llega porque hay un camino mínimo
+                arco = sigArco[tope];
+                if (arco == grafo.primerArco[pila[tope] + 1]) {
+                    tope--;
+                } else {
+                    sigArco[tope]++;
+                    numAdy = grafo.destinos[arco];
+                    nuevaDist = (long) dist[pila[tope]] + grafo.etiquetas[arco];
+                    if (!visitados[numAdy] && sePuedeUsar(pila[tope], desde, numAdy)
+                            && dist[numAdy] <= dist[destino] && dist[numAdy] == nuevaDist) {
+                        visitados[numAdy] = true;
+                        tope++;
+                        pila[tope] = numAdy;
+                        sigArco[tope] = grafo.primerArco[numAdy];
+                    }
+                }
+            }
+
+            camino = new Candidato(comienzo.length + tope + 1);
+            base = comienzo.length > 0 ? distancias[comienzo.length - 1] + etiqueta(comienzo[comienzo.length - 1],
+                    desde) : 0;
+            for (int i = 0; i < comienzo.length; i++) {
+                camino.vertices[i] = comienzo[i];
+                camino.distancias[i] = distancias[i];
+            }
+            for (int i = 0; i <= tope; i++) {
+                camino.vertices[comienzo.length + i] = pila[i];
+                camino.distancias[comienzo.length + i] = base + dist[pila[i]];
+            }
+            camino.distancia = camino.distancias[camino.distancias.length - 1];
+        }
+        return camino;
+    }
+
+    private boolean sePuedeUsar(int num, int desde, int numAdy) {
+        return !bloqueados[numAdy] && !(num == desde && arcoBloqueado[numAdy]);
+    }
+
+    /**
+     * @return la menor etiqueta de los arcos entre ambos vértices
+     */
+    private long etiqueta(int numOrigen, int numDestino) {
+        long menor = Long.MAX_VALUE;
+        for (int arco = grafo.primerArco[numOrigen]; arco < grafo.primerArco[numOrigen + 1]; arco++) {
+            if (grafo.destinos[arco] == numDestino)
+                menor = Math.min(menor, grafo.etiquetas[arco]);
+        }
+        return menor;
+    }
+
+    /**
+     * Camino encontrado, se compara por distancia y después por orden de aparición. Dos candidatos son iguales si
+     * tienen los mismos vértices.
+     */
+    private static class Candidato implements Comparable<Candidato> {
+        private final int[] vertices;
+        private final long[] distancias; // distancia desde el origen de cada vértice del camino
+        private long distancia;
+        private long orden;
+
+        private Candidato(int largo) {
+            this.vertices = new int[largo];
+            this.distancias = new long[largo];
+        }
+
+        @Override
+        public int compareTo(Candidato otro) {
+            int comparacion = Long.compare(distancia, otro.distancia);
+            return comparacion != 0 ? comparacion : Long.compare(orden, otro.orden);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Candidato && Arrays.equals(vertices, ((Candidato) obj).vertices);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(vertices);
+        }
+    }
+}
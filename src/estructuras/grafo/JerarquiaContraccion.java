@@ -0,0 +1,408 @@
+package estructuras.grafo;
+
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice de jerarquía de contracción (contraction hierarchies) para responder caminos mínimos entre dos vértices
+ * mucho más rápido que Dijkstra, pensado para un mapa que cambia poco y recibe muchas consultas.
+ * Al armarlo se contraen los vértices de a uno, de menos a más importante. Al contraer un vértice v, para cada par
+ * de vecinos u, w se agrega el atajo u -> w si el único camino mínimo entre ellos pasaba por v. El nivel de un
+ * vértice es el orden en que se contrajo. Una consulta es un Dijkstra desde el origen y otro desde el destino que
+ * solo suben de nivel, así recorren unos pocos vértices, y el camino encontrado se desarma reemplazando cada atajo
+ * por los arcos que representa.
+ * Se arma a partir de una copia compacta del grafo y no se modifica después, así que se puede compartir entre
+ * varios hilos. Si hay más de un camino mínimo puede devolver uno distinto al de DigrafoEtiquetado.caminoMasCorto,
+ * pero con la misma distancia. Las etiquetas no deben ser negativas.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+public final class JerarquiaContraccion<E> {
+    private static final int INFINITO = DigrafoEtiquetado.INFINITO;
+    // máximo de vértices que fija cada búsqueda de caminos alternativos al contraer, si se corta antes se agrega el
+    // atajo aunque no haga falta
+    private static final int LIMITE_TESTIGOS = 500;
+
+    private final GrafoCompacto<E> grafo;
+    private final int n;
+    // arcos de cada vértice hacia vértices de mayor nivel, para la búsqueda desde el origen
+    private final int[] primerSubida, destinoSubida, pesoSubida;
+    // arcos que llegan a cada vértice desde vértices de mayor nivel, para la búsqueda desde el destino
+    private final int[] primerBajada, origenBajada, pesoBajada;
+    // vértice contraído que reemplaza cada atajo, por origen * n + destino
+    private final HashMap<Long, Integer> intermedios;
+
+    // estado usado solo mientras se arma el índice
+    private HashMap<Integer, Integer>[] salientes, entrantes;
+    private int[] distTestigo, tocados;
+    private ColaPrioridadIndexada colaTestigos;
+
+    /**
+     * Arma el índice a partir de la copia del grafo.
+     *
+     * @param grafo copia compacta del grafo, ver DigrafoEtiquetado.congelar
+     */
+    public JerarquiaContraccion(GrafoCompacto<E> grafo) {
+        ColaPrioridadIndexada orden;
+        int[][] subida, pesosSubida, bajada, pesosBajada;
+        int[] vecinosContraidos;
+        int v, prioridad;
+
+        this.grafo = grafo;
+        this.n = grafo.cantidadVertices();
+        this.intermedios = new HashMap<>();
+        salientes = new HashMap[n];
+        entrantes = new HashMap[n];
+        for (v = 0; v < n; v++) {
+            salientes[v] = new HashMap<>();
+            entrantes[v] = new HashMap<>();
+        }
+        for (v = 0; v < n; v++) {
+            for (int arco = grafo.primerArco[v]; arco < grafo.primerArco[v + 1]; arco++) {
+                if (grafo.destinos[arco] != v) { // los lazos no sirven para caminos mínimos
+                    salientes[v].merge(grafo.destinos[arco], grafo.etiquetas[arco], Math::min);
+                    entrantes[grafo.destinos[arco]].merge(v, grafo.etiquetas[arco], Math::min);
+                }
+            }
+        }
+        distTestigo = new int[n];
+        Arrays.fill(distTestigo, INFINITO);
+        tocados = new int[n];
+        colaTestigos = new ColaPrioridadIndexada(n);
+
+        subida = new int[n][];
+        pesosSubida = new int[n][];
+        bajada = new int[n][];
+        pesosBajada = new int[n][];
+        vecinosContraidos = new int[n];
+        orden = new ColaPrioridadIndexada(n);
+        for (v = 0; v < n; v++)
+            orden.insertar(v, prioridad(v, vecinosContraidos));
+        while (!orden.estaVacia()) {
+            v = orden.obtenerFrente();
+            orden.eliminarFrente();
+            prioridad = prioridad(v, vecinosContraidos);
+            if (!orden.estaVacia() && prioridad > orden.obtenerPrioridadFrente()) {
+                orden.insertar(v, prioridad); // la prioridad estaba desactualizada, se prueba con el siguiente
+            } else {
+                // los vecinos que quedan tienen mayor nivel
+                subida[v] = claves(salientes[v]);
+                pesosSubida[v] = valores(salientes[v], subida[v]);
+                bajada[v] = claves(entrantes[v]);
+                pesosBajada[v] = valores(entrantes[v], bajada[v]);
+                contraer(v, true);
+                for (int w : subida[v]) {
+                    entrantes[w].remove(v);
+                    vecinosContraidos[w]++;
+                }
+                for (int u : bajada[v]) {
+                    salientes[u].remove(v);
+                    vecinosContraidos[u]++;
+                }
+            }
+        }
+
+        primerSubida = new int[n + 1];
+        primerBajada = new int[n + 1];
+        for (v = 0; v < n; v++) {
+            primerSubida[v + 1] = primerSubida[v] + subida[v].length;
+            primerBajada[v + 1] = primerBajada[v] + bajada[v].length;
+        }
+        destinoSubida = new int[primerSubida[n]];
+        pesoSubida = new int[primerSubida[n]];
+        origenBajada = new int[primerBajada[n]];
+        pesoBajada = new int[primerBajada[n]];
+        for (v = 0; v < n; v++) {
+            System.arraycopy(subida[v], 0, destinoSubida, primerSubida[v], subida[v].length);
+            System.arraycopy(pesosSubida[v], 0, pesoSubida, primerSubida[v], subida[v].length);
+            System.arraycopy(bajada[v], 0, origenBajada, primerBajada[v], bajada[v].length);
+            System.arraycopy(pesosBajada[v], 0, pesoBajada, primerBajada[v], bajada[v].length);
+        }
+        salientes = null;
+        entrantes = null;
+        distTestigo = null;
+        tocados = null;
+        colaTestigos = null;
+    }
+
+    /**
+     * Cuanto menor, antes se contrae el vértice: atajos que agregaría menos arcos que quita, más la cantidad de
+     * vecinos ya contraídos para que la contracción se reparta por todo el mapa.
+     */
+    private int prioridad(int v, int[] vecinosContraidos) {
+        return contraer(v, false) - salientes[v].size() - entrantes[v].size() + vecinosContraidos[v];
+    }
+
+    /**
+     * Busca los atajos necesarios para contraer el vértice.
+     *
+     * @param agregar true para agregarlos, false solo para contarlos
+     * @return cantidad de atajos necesarios
+     */
+    private int contraer(int v, boolean agregar) {
+        int cant = 0, max, u, pesoUV;
+        long candidato;
+
+        for (Map.Entry<Integer, Integer> entrante : entrantes[v].entrySet()) {
+            u = entrante.getKey();
+            pesoUV = entrante.getValue();
+            max = 0;
+            for (Map.Entry<Integer, Integer> saliente : salientes[v].entrySet()) {
+                if (saliente.getKey() != u)
+                    max = Math.max(max, pesoUV + saliente.getValue());
+            }
+            int cantTocados = buscarTestigos(u, v, max);
+            for (Map.Entry<Integer, Integer> saliente : salientes[v].entrySet()) {
+                int w = saliente.getKey();
+                candidato = (long) pesoUV + saliente.getValue();
+                if (w != u && distTestigo[w] > candidato) { // no hay otro camino igual de corto sin pasar por v
+                    cant++;
+                    if (agregar)
+                        agregarAtajo(u, w, (int) candidato, v);
+                }
+            }
+            for (int i = 0; i < cantTocados; i++)
+                distTestigo[tocados[i]] = INFINITO;
+            colaTestigos.vaciar();
+        }
+        return cant;
+    }
+
+    /**
+     * Dijkstra desde el origen en el grafo sin contraer, evitando el vértice excluido, hasta la distancia máxima o
+     * hasta fijar LIMITE_TESTIGOS vértices.
+     *
+     * @return cantidad de vértices con distancia en distTestigo, guardados en tocados
+     */
+    private int buscarTestigos(int origen, int excluido, int max) {
+        int cantTocados = 0, fijados = 0, x;
+        long nuevaDist;
+
+        distTestigo[origen] = 0;
+        tocados[cantTocados++] = origen;
+        colaTestigos.insertar(origen, 0);
+        while (!colaTestigos.estaVacia() && colaTestigos.obtenerPrioridadFrente() <= max
+                && fijados < LIMITE_TESTIGOS) {
+            x = colaTestigos.obtenerFrente();
+            colaTestigos.eliminarFrente();
+            fijados++;
+            for (Map.Entry<Integer, Integer> saliente : salientes[x].entrySet()) {
+                int w = saliente.getKey();
+                nuevaDist = (long) distTestigo[x] + saliente.getValue();
+                if (w != excluido && nuevaDist < distTestigo[w]) {
+                    if (distTestigo[w] == INFINITO)
+                        tocados[cantTocados++] = w;
+                    distTestigo[w] = (int) nuevaDist;
+                    colaTestigos.insertar(w, distTestigo[w]);
+                }
+            }
+        }
+        return cantTocados;
+    }
+
+    private void agregarAtajo(int u, int w, int peso, int intermedio) {
+        Integer actual = salientes[u].get(w);
+        if (actual == null || peso < actual) {
+            salientes[u].put(w, peso);
+            entrantes[w].put(u, peso);
+            intermedios.put((long) u * n + w, intermedio);
+        }
+    }
+
+    private static int[] claves(HashMap<Integer, Integer> mapa) {
+        int[] claves = new int[mapa.size()];
+        int i = 0;
+        for (int clave : mapa.keySet())
+            claves[i++] = clave;
+        return claves;
+    }
+
+    private static int[] valores(HashMap<Integer, Integer> mapa, int[] claves) {
+        int[] valores = new int[claves.length];
+        for (int i = 0; i < claves.length; i++)
+            valores[i] = mapa.get(claves[i]);
+        return valores;
+    }
+
+    /**
+     * @return la versión del grafo a partir del cual se armó el índice
+     */
+    public long getVersion() {
+        return grafo.getVersion();
+    }
+
+    /**
+     * @return cantidad de atajos agregados al contraer
+     */
+    public int cantidadAtajos() {
+        return intermedios.size();
+    }
+
+    /**
+     * Devuelve un camino de menor distancia entre ambos vértices, con todos los vértices intermedios.
+     *
+     * @param origen  vertice origen
+     * @param destino vertice destino
+     * @return lista con el camino, vacía si no hay camino o alguno de los vértices no existe
+     */
+    public Lista<E> caminoMasCorto(E origen, E destino) {
+        Lista<E> camino = new ListaDinamica<>();
+        int numOrigen = grafo.numero(origen), numDestino = grafo.numero(destino);
+
+        if (numOrigen != -1 && numDestino != -1) {
+            Busqueda busqueda = new Busqueda(numOrigen, numDestino);
+            if (busqueda.encuentro != -1)
+                camino = busqueda.armarCamino();
+        }
+        return camino;
+    }
+
+    /**
+     * @return la suma de las etiquetas del camino más corto, -1 si no hay camino o alguno de los vértices no existe
+     */
+    public int distanciaMinima(E origen, E destino) {
+        int distancia = -1;
+        int numOrigen = grafo.numero(origen), numDestino = grafo.numero(destino);
+
+        if (numOrigen != -1 && numDestino != -1) {
+            Busqueda busqueda = new Busqueda(numOrigen, numDestino);
+            if (busqueda.encuentro != -1)
+                distancia = (int) busqueda.mejor;
+        }
+        return distancia;
+    }
+
+    /**
+     * Búsqueda bidireccional que solo sube de nivel. Cada consulta crea la suya, así el índice no cambia.
+     */
+    private class Busqueda {
+        private final int origen, destino;
+        private final int[] distAdelante = new int[n], distAtras = new int[n];
+        private final int[] predAdelante = new int[n], predAtras = new int[n];
+        private long mejor = INFINITO;
+        private int encuentro = -1; // vértice donde se juntan las dos búsquedas en el mejor camino
+
+        private Busqueda(int origen, int destino) {
+            ColaPrioridadIndexada colaAdelante = new ColaPrioridadIndexada(n);
+            ColaPrioridadIndexada colaAtras = new ColaPrioridadIndexada(n);
+            boolean adelante;
+            int v;
+
+            this.origen = origen;
+            this.destino = destino;
+            Arrays.fill(distAdelante, INFINITO);
+            Arrays.fill(distAtras, INFINITO);
+            distAdelante[origen] = 0;
+            distAtras[destino] = 0;
+            colaAdelante.insertar(origen, 0);
+            colaAtras.insertar(destino, 0);
+            if (origen == destino) {
+                mejor = 0;
+                encuentro = origen;
+            }
+            // cada búsqueda termina cuando ya no puede mejorar el camino encontrado
+            while (sigue(colaAdelante) || sigue(colaAtras)) {
+                adelante = !sigue(colaAtras) || (sigue(colaAdelante)
+                        && colaAdelante.obtenerPrioridadFrente() <= colaAtras.obtenerPrioridadFrente());
+                if (adelante) {
+                    v = colaAdelante.obtenerFrente();
+                    colaAdelante.eliminarFrente();
+                    relajar(v, primerSubida, destinoSubida, pesoSubida, distAdelante, predAdelante, distAtras,
+                            colaAdelante);
+                } else {
+                    v = colaAtras.obtenerFrente();
+                    colaAtras.eliminarFrente();
+                    relajar(v, primerBajada, origenBajada, pesoBajada, distAtras, predAtras, distAdelante,
+                            colaAtras);
+                }
+            }
+        }
+
+        private boolean sigue(ColaPrioridadIndexada cola) {
+            return !cola.estaVacia() && cola.obtenerPrioridadFrente() < mejor;
+        }
+
+        private void relajar(int v,
+                             int[] primero,
+                             int[] vecinos,
+                             int[] pesos,
+                             int[] dist,
+                             int[] pred,
+                             int[] distOtra,
+                             ColaPrioridadIndexada cola) {
+            long nuevaDist;
+            int w;
+            for (int arco = primero[v]; arco < primero[v + 1]; arco++) {
+                w = vecinos[arco];
+                nuevaDist = (long) dist[v] + pesos[arco];
+                if (nuevaDist < dist[w]) {
+                    dist[w] = (int) nuevaDist;
+                    pred[w] = v;
+                    cola.insertar(w, dist[w]);
+                    if (distOtra[w] != INFINITO && nuevaDist + distOtra[w] < mejor) {
+                        mejor = nuevaDist + distOtra[w];
+                        encuentro = w;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Une los dos caminos en el vértice de encuentro y reemplaza cada atajo por los arcos que representa.
+         */
+        private Lista<E> armarCamino() {
+            Lista<E> camino = new ListaDinamica<>();
+            int[] vertices = new int[n];
+            int[] pila = new int[2 * n];
+            int cant = 0, v;
+
+            for (v = encuentro; v != origen; v = predAdelante[v])
+                vertices[cant++] = v;
+            vertices[cant++] = origen;
+            for (int i = 0, j = cant - 1; i < j; i++, j--) { // queda desde el origen hasta el encuentro
+                v = vertices[i];
+                vertices[i] = vertices[j];
+                vertices[j] = v;
+            }
+            for (v = encuentro; v != destino; v = predAtras[v])
+                vertices[cant++] = predAtras[v];
+
+            camino.insertar(grafo.elementos[origen]);
+            for (int i = 1; i < cant; i++)
+                desarmarAtajo(vertices[i - 1], vertices[i], camino, pila);
+            return camino;
+        }
+
+        /**
+         * Agrega al camino los vértices del arco u -> w sin contar u, reemplazando los atajos con una pila de pares
+         * de vértices.
+         */
+        private void desarmarAtajo(int u, int w, Lista<E> camino, int[] pila) {
+            int tope = 0;
+            Integer intermedio;
+
+            pila[0] = u;
+            pila[1] = w;
+            while (tope >= 0) {
+                int desde = pila[2 * tope], hasta = pila[2 * tope + 1];
+                tope--;
+                intermedio = intermedios.get((long) desde * n + hasta);
+                if (intermedio == null) {
+                    camino.insertar(grafo.elementos[hasta]);
+                } else { // primero se desarma la primera mitad
+                    tope++;
+                    pila[2 * tope] = intermedio;
+                    pila[2 * tope + 1] = hasta;
+                    tope++;
+                    pila[2 * tope] = desde;
+                    pila[2 * tope + 1] = intermedio;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package estructuras.grafo;
+
+import java.util.Arrays;
+
+/**
+ * Distancias desde unos pocos vértices de referencia (landmarks) a todos los vértices de un grafo no dirigido, para
+ * estimar distancias sin coordenadas. Por la desigualdad triangular, para cualquier referencia L la distancia entre
+ * v y t es al menos |d(L, t) - d(L, v)|, y el máximo sobre las referencias es una cota inferior consistente que usa
+ * A*.
+ * Las referencias se eligen por el punto más lejano: cada una es el vértice más lejano a las ya elegidas, así quedan
+ * en los extremos del mapa y en cada componente conexa. La tabla corresponde al grafo del momento en que se armó.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+class PuntosReferencia<E> {
+    private static final int INFINITO = DigrafoEtiquetado.INFINITO;
+
+    private final int[][] dist; // dist[i][id] distancia desde la referencia i, INFINITO si no se alcanza
+
+    /**
+     * Elige las referencias y calcula sus distancias con un Dijkstra desde cada una, O(k (V + E) log V).
+     *
+     * @param grafo    grafo no dirigido
+     * @param cantidad cantidad de referencias, se usan menos si el grafo tiene menos vértices
+     */
+    PuntosReferencia(DigrafoEtiquetado<E> grafo, int cantidad) {
+        int n = grafo.cantVertices;
+        int[][] elegidas = new int[Math.min(cantidad, n)][];
+        int[] distMinima = new int[n]; // distancia de cada vértice a la referencia más cercana
+        int cant = 0, candidato = -1;
+
+        if (n > 0) {
+            // la primera referencia es el vértice más lejano a uno cualquiera
+            candidato = masLejano(grafo.distanciasMinimas(grafo.verticesPorId[0], null));
+            Arrays.fill(distMinima, INFINITO);
+        }
+        while (cant < elegidas.length && candidato != -1) {
+            elegidas[cant] = grafo.distanciasMinimas(grafo.verticesPorId[candidato], null);
+            for (int id = 0; id < n; id++)
+                distMinima[id] = Math.min(distMinima[id], elegidas[cant][id]);
+            cant++;
+            candidato = masLejano(distMinima);
+        }
+        dist = Arrays.copyOf(elegidas, cant);
+    }
+
+    /**
+     * @return el id con mayor distancia, los no alcanzados primero, o -1 si todas las distancias son 0
+     */
+    private static int masLejano(int[] distancias) {
+        int mayor = -1;
+        for (int id = 0; id < distancias.length; id++) {
+            if (distancias[id] > 0 && (mayor == -1 || distancias[id] > distancias[mayor]))
+                mayor = id;
+        }
+        return mayor;
+    }
+
+    /**
+     * @return cota inferior de la distancia entre los vértices
+     */
+    int cotaInferior(int id, int idDestino) {
+        int cota = 0;
+        for (int[] desdeReferencia : dist) {
+            if (desdeReferencia[id] != INFINITO && desdeReferencia[idDestino] != INFINITO)
+                cota = Math.max(cota, Math.abs(desdeReferencia[idDestino] - desdeReferencia[id]));
+        }
+        return cota;
+    }
+
+    int cantidad() {
+        return dist.length;
+    }
+}
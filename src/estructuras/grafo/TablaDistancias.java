@@ -0,0 +1,132 @@
+package estructuras.grafo;
+
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Distancias mínimas entre todos los pares de vértices de una copia compacta del grafo y el siguiente vértice de cada
+ * camino mínimo, guardados en arreglos de n * n indexados por número de vértice (fila origen, columna destino). Con
+ * la tabla armada la distancia entre dos vértices se obtiene en O(1) y el camino en O(largo del camino).
+ * Si el grafo es denso se arma con Floyd-Warshall en O(V^3), si no con un Dijkstra desde cada vértice en
+ * O(V (V + E) log V), en paralelo entre los vértices. La tabla corresponde a la copia sobre la que se armó, así que
+ * queda invalidada junto con ella cuando se publica una copia de una versión posterior del grafo.
+ *
+ * @param <E> tipo de elemento de los vértices
+ */
+class TablaDistancias<E> {
+    private static final int INFINITO = DigrafoEtiquetado.INFINITO;
+
+    private final int n;
+    private final int[] dist;      // dist[origen * n + destino], INFINITO si no hay camino
+    private final int[] siguiente; // número del vértice que sigue al origen en el camino mínimo, -1 si no hay
+
+    TablaDistancias(GrafoCompacto<E> grafo) {
+        n = grafo.cantidadVertices();
+        dist = new int[n * n];
+        siguiente = new int[n * n];
+
+        if (esDenso(grafo))
+            floydWarshall(grafo);
+        else
+            IntStream.range(0, n).parallel().forEach(num ->
+                    System.arraycopy(grafo.distanciasMinimas(num, -1), 0, dist, num * n, n));
+        IntStream.range(0, n).parallel().forEach(num -> calcularSiguientes(grafo, num));
+    }
+
+    /**
+     * Un grafo es denso si tiene al menos un arco cada cuatro pares de vértices.
+     */
+    private boolean esDenso(GrafoCompacto<E> grafo) {
+        return (long) grafo.cantidadArcos() * 4 >= (long) n * n;
+    }
+
+    private void floydWarshall(GrafoCompacto<E> grafo) {
+        int pos, distIK;
+        long nuevaDist;
+
+        Arrays.fill(dist, INFINITO);
+        for (int i = 0; i < n; i++) {
+            dist[i * n + i] = 0;
+            for (int arco = grafo.primerArco[i]; arco < grafo.primerArco[i + 1]; arco++) {
+                pos = i * n + grafo.destinos[arco];
+                dist[pos] = Math.min(dist[pos], grafo.etiquetas[arco]);
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                distIK = dist[i * n + k];
+                if (distIK != INFINITO) {
+                    for (int j = 0; j < n; j++) {
+                        if (dist[k * n + j] != INFINITO) {
+                            nuevaDist = (long) distIK + dist[k * n + j];
+                            if (nuevaDist < dist[i * n + j])
+                                dist[i * n + j] = (int) nuevaDist;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * El siguiente vértice hacia cada destino es el primer adyacente, en el orden de los arcos, que está en algún
+     * camino mínimo. Es el mismo primer paso que elige GrafoCompacto.caminoMasCorto al buscar el camino, así que sin
+     * etiquetas en 0 el camino armado es el mismo.
+     */
+    private void calcularSiguientes(GrafoCompacto<E> grafo, int i) {
+        int ady, pos;
+
+        for (int j = 0; j < n; j++) {
+            pos = i * n + j;
+            siguiente[pos] = -1;
+            if (i != j && dist[pos] != INFINITO) {
+                for (int arco = grafo.primerArco[i]; siguiente[pos] == -1 && arco < grafo.primerArco[i + 1]; arco++) {
+                    ady = grafo.destinos[arco];
+                    if (dist[ady * n + j] != INFINITO && (long) grafo.etiquetas[arco] + dist[ady * n + j] == dist[pos])
+                        siguiente[pos] = ady;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return la distancia mínima entre los vértices, INFINITO si no hay camino
+     */
+    int distancia(int origen, int destino) {
+        return dist[origen * n + destino];
+    }
+
+    /**
+     * @return el vértice que sigue al origen en el camino mínimo hacia el destino, -1 si no hay camino o son el mismo
+     */
+    int siguiente(int origen, int destino) {
+        return siguiente[origen * n + destino];
+    }
+
+    /**
+     * Arma el camino mínimo siguiendo los siguientes vértices. Con arcos de etiqueta 0 el recorrido puede volver a un
+     * vértice, en ese caso devuelve null y el camino se debe buscar de otra forma.
+     *
+     * @return el camino, vacío si no hay camino, o null si no se pudo armar
+     */
+    Lista<E> armarCamino(GrafoCompacto<E> grafo, int origen, int destino) {
+        Lista<E> camino = new ListaDinamica<>();
+        int num = origen, pasos = 0;
+
+        if (dist[origen * n + destino] != INFINITO) {
+            camino.insertar(grafo.elementos[origen]);
+            while (camino != null && num != destino) {
+                num = siguiente[num * n + destino];
+                pasos++;
+                if (pasos < n)
+                    camino.insertar(grafo.elementos[num]);
+                else
+                    camino = null;
+            }
+        }
+        return camino;
+    }
+}
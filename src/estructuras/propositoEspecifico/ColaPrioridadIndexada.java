@@ -0,0 +1,151 @@
+package estructuras.propositoEspecifico;
+
+import java.io.Serializable;
+
+/**
+ * Cola de prioridad de mínimos implementada con un heap binario sobre arreglos de enteros. Los elementos son
+ * indices entre 0 y capacidad - 1 (por ejemplo los vértices de un grafo), y cada uno puede estar a lo sumo una vez
+ * en la cola. Permite disminuir la prioridad de un elemento que ya está en la cola en O(log n), y no crea objetos
+ * por cada operación.
+ * A igual prioridad sale primero el índice menor, así el orden de salida es siempre el mismo.
+ */
+public class ColaPrioridadIndexada implements Serializable {
+    private int[] heap;        // heap[1..ultimo] con los indices
+    private int[] posicion;    // posicion[indice] = lugar en el heap, 0 si no esta en la cola
+    private int[] prioridad;   // prioridad[indice]
+    private int ultimo;
+
+    /**
+     * Crea una cola vacía que admite indices entre 0 y capacidad - 1.
+     *
+     * @param capacidad cantidad de indices distintos que puede contener
+     */
+    public ColaPrioridadIndexada(int capacidad) {
+        this.heap = new int[capacidad + 1];
+        this.posicion = new int[capacidad];
+        this.prioridad = new int[capacidad];
+        this.ultimo = 0;
+    }
+
+    /**
+     * Inserta el índice con la prioridad dada. Si el índice ya estaba en la cola y la nueva prioridad es menor,
+     * se actualiza su prioridad.
+     *
+     * @param indice    índice a insertar
+     * @param prioridad prioridad del índice, menor valor sale primero
+     * @return verdadero si insertó o actualizó el índice y falso en caso contrario
+     */
+    public boolean insertar(int indice, int prioridad) {
+        boolean exito = false;
+        if (indice >= 0 && indice < posicion.length) {
+            if (posicion[indice] == 0) {
+                ultimo++;
+                heap[ultimo] = indice;
+                posicion[indice] = ultimo;
+                this.prioridad[indice] = prioridad;
+                hacerSubir(ultimo);
+                exito = true;
+            } else if (prioridad < this.prioridad[indice]) {
+                this.prioridad[indice] = prioridad;
+                hacerSubir(posicion[indice]);
+                exito = true;
+            }
+        }
+        return exito;
+    }
+
+    /**
+     * Devuelve el índice de menor prioridad. Precondición: la cola no está vacía.
+     *
+     * @return el índice del frente
+     */
+    public int obtenerFrente() {
+        return heap[1];
+    }
+
+    /**
+     * Devuelve la prioridad del índice del frente. Precondición: la cola no está vacía.
+     *
+     * @return la prioridad del frente
+     */
+    public int obtenerPrioridadFrente() {
+        return prioridad[heap[1]];
+    }
+
+    /**
+     * Elimina el índice de menor prioridad.
+     *
+     * @return verdadero si se eliminó correctamente y falso de lo contrario
+     */
+    public boolean eliminarFrente() {
+        boolean exito = false;
+        if (ultimo > 0) {
+            posicion[heap[1]] = 0;
+            heap[1] = heap[ultimo];
+            ultimo--;
+            if (ultimo > 0) {
+                posicion[heap[1]] = 1;
+                hacerBajar(1);
+            }
+            exito = true;
+        }
+        return exito;
+    }
+
+    /**
+     * Verifica si el índice se encuentra en la cola.
+     *
+     * @param indice índice a verificar
+     * @return verdadero si está en la cola y falso en caso contrario
+     */
+    public boolean contiene(int indice) {
+        return indice >= 0 && indice < posicion.length && posicion[indice] != 0;
+    }
+
+    public boolean estaVacia() {
+        return ultimo == 0;
+    }
+
+    public void vaciar() {
+        for (int i = 1; i <= ultimo; i++)
+            posicion[heap[i]] = 0;
+        ultimo = 0;
+    }
+
+    private boolean menor(int i, int j) {
+        return prioridad[i] < prioridad[j] || (prioridad[i] == prioridad[j] && i < j);
+    }
+
+    private void hacerSubir(int pos) {
+        int indice = heap[pos];
+        int posPadre = pos / 2;
+        while (posPadre > 0 && menor(indice, heap[posPadre])) {
+            heap[pos] = heap[posPadre];
+            posicion[heap[pos]] = pos;
+            pos = posPadre;
+            posPadre = pos / 2;
+        }
+        heap[pos] = indice;
+        posicion[indice] = pos;
+    }
+
+    private void hacerBajar(int pos) {
+        int indice = heap[pos];
+        int posHijo = pos * 2;
+        boolean salir = false;
+        while (!salir && posHijo <= ultimo) {
+            if (posHijo < ultimo && menor(heap[posHijo + 1], heap[posHijo]))
+                posHijo++;
+            if (menor(heap[posHijo], indice)) {
+                heap[pos] = heap[posHijo];
+                posicion[heap[pos]] = pos;
+                pos = posHijo;
+                posHijo = pos * 2;
+            } else {
+                salir = true;
+            }
+        }
+        heap[pos] = indice;
+        posicion[indice] = pos;
+    }
+}
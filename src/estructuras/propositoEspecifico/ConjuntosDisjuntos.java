@@ -0,0 +1,99 @@
+package estructuras.propositoEspecifico;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Conjuntos disjuntos (union-find) de los enteros 0 a cantidad - 1. Usa unión por rango y compresión de caminos,
+ * así cada operación cuesta casi O(1) amortizado. Los elementos se agregan de a uno, cada uno en su propio conjunto.
+ */
+public class ConjuntosDisjuntos implements Serializable {
+    private int[] padre;  // padre[i] == i si i es el representante de su conjunto
+    private int[] rango;  // cota de la altura del árbol de cada representante
+    private int cantidad;
+    private int cantConjuntos;
+
+    public ConjuntosDisjuntos() {
+        this(10);
+    }
+
+    /**
+     * @param capacidad cantidad de elementos que se espera agregar, crece si hace falta
+     */
+    public ConjuntosDisjuntos(int capacidad) {
+        this.padre = new int[Math.max(capacidad, 1)];
+        this.rango = new int[padre.length];
+        this.cantidad = 0;
+        this.cantConjuntos = 0;
+    }
+
+    /**
+     * Agrega el siguiente elemento en un conjunto propio.
+     *
+     * @return el elemento agregado, igual a la cantidad de elementos anterior
+     */
+    public int agregar() {
+        if (cantidad == padre.length) {
+            padre = Arrays.copyOf(padre, padre.length * 2);
+            rango = Arrays.copyOf(rango, rango.length * 2);
+        }
+        padre[cantidad] = cantidad;
+        rango[cantidad] = 0;
+        cantConjuntos++;
+        return cantidad++;
+    }
+
+    /**
+     * Devuelve el representante del conjunto del elemento. Precondición: el elemento fue agregado.
+     *
+     * @param elem elemento a buscar
+     * @return el representante de su conjunto
+     */
+    public int buscar(int elem) {
+        while (padre[elem] != elem) {
+            padre[elem] = padre[padre[elem]]; // cada elemento pasa a apuntar a su abuelo
+            elem = padre[elem];
+        }
+        return elem;
+    }
+
+    /**
+     * Une los conjuntos de ambos elementos.
+     *
+     * @return verdadero si estaban en conjuntos distintos y falso en caso contrario
+     */
+    public boolean unir(int elem1, int elem2) {
+        int raiz1 = buscar(elem1);
+        int raiz2 = buscar(elem2);
+        boolean exito = raiz1 != raiz2;
+
+        if (exito) {
+            if (rango[raiz1] < rango[raiz2]) {
+                padre[raiz1] = raiz2;
+            } else {
+                padre[raiz2] = raiz1;
+                if (rango[raiz1] == rango[raiz2])
+                    rango[raiz1]++;
+            }
+            cantConjuntos--;
+        }
+        return exito;
+    }
+
+    public boolean mismoConjunto(int elem1, int elem2) {
+        return buscar(elem1) == buscar(elem2);
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    public int cantidadConjuntos() {
+        return cantConjuntos;
+    }
+
+    public void vaciar() {
+        cantidad = 0;
+        cantConjuntos = 0;
+    }
+}
@@ -2,11 +2,19 @@ package estructuras.propositoEspecifico;
 
 import estructuras.lineales.Lista;
 import estructuras.lineales.ListaDinamica;
+import estructuras.lineales.PilaDinamica;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C, D>, Serializable {
     private Nodo<C, D> raiz;
+    // pila con el camino desde la raíz que usan insertar y eliminar para balancear, se reutiliza entre operaciones
+    private transient Nodo<C, D>[] camino;
 
     @Override
     public boolean insertar(C clave, D dato) {
@@ -15,36 +23,63 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
             if (this.raiz == null) {
                 this.raiz = new Nodo<>(clave, dato);
             } else {
-                exito = insertar(clave, dato, this.raiz, null);
+                Nodo<C, D> nodo = this.raiz, hijo;
+                int tope = 0, comparacion;
+
+                while (exito && nodo != null) {
+                    comparacion = clave.compareTo(nodo.getClave());
+                    if (comparacion == 0) {
+                        exito = false;
+                    } else {
+                        tope = apilar(nodo, tope);
+                        hijo = comparacion < 0 ? nodo.getIzq() : nodo.getDer();
+                        if (hijo == null) {
+                            if (comparacion < 0)
+                                nodo.setIzq(new Nodo<>(clave, dato));
+                            else
+                                nodo.setDer(new Nodo<>(clave, dato));
+                        }
+                        nodo = hijo;
+                    }
+                }
+                rebalancear(tope); // también si la clave ya estaba, igual que al volver de la recursión
             }
         }
         return exito;
     }
 
-    private boolean insertar(C clave, D dato, Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
-        boolean exito = true;
+    /**
+     * Guarda el nodo en la pila del camino desde la raíz, que se reutiliza entre operaciones.
+     *
+     * @return el nuevo tope de la pila
+     */
+    private int apilar(Nodo<C, D> nodo, int tope) {
+        if (camino == null)
+            camino = new Nodo[16];
+        else if (tope == camino.length)
+            camino = Arrays.copyOf(camino, tope * 2);
+        camino[tope] = nodo;
+        return tope + 1;
+    }
 
-        if (clave.compareTo(nodo.getClave()) == 0) {
-            exito = false;
-        } else {
-            if (clave.compareTo(nodo.getClave()) < 0) {
-                if (nodo.tieneIzq())
-                    exito = insertar(clave, dato, nodo.getIzq(), nodo);
-                else
-                    nodo.setIzq(new Nodo<>(clave, dato));
-            } else {
-                if (nodo.tieneDer())
-                    exito = insertar(clave, dato, nodo.getDer(), nodo);
-                else
-                    nodo.setDer(new Nodo<>(clave, dato));
-            }
-            nodo.recalcularAltura();
-            balancear(nodo, nodoPadre);
+    /**
+     * Recalcula la altura y el tamaño y balancea cada nodo del camino, desde el más profundo hasta la raíz, igual que al volver
+     * de la recursión.
+     */
+    private void rebalancear(int tope) {
+        for (int i = tope - 1; i >= 0; i--) {
+            camino[i].recalcular();
+            balancear(camino[i]);
+            camino[i] = null;
         }
-        return exito;
     }
 
-    private void balancear(Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
+    private void desapilar(int tope) {
+        for (int i = tope - 1; i >= 0; i--)
+            camino[i] = null;
+    }
+
+    private void balancear(Nodo<C, D> nodo) {
         int balance = calcularBalance(nodo);
         int balanceHijo;
 
@@ -93,8 +128,8 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
         // cambio el hijo izquierdo de la raiz
         nodoRaiz.setIzq(nodoTemp);
 
-        nodoTemp.recalcularAltura();
-        nodoRaiz.recalcularAltura();
+        nodoTemp.recalcular();
+        nodoRaiz.recalcular();
     }
 
     private void rotarDerecha(Nodo<C, D> nodoRaiz) {
@@ -114,69 +149,79 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
         // cambio el hijo derecho de la raiz
         nodoRaiz.setDer(nodoTemp);
 
-        nodoTemp.recalcularAltura();
-        nodoRaiz.recalcularAltura();
+        nodoTemp.recalcular();
+        nodoRaiz.recalcular();
     }
 
-    @Override
-    public boolean eliminar(C clave) {
-        boolean exito = false;
-
-        if (clave != null && this.raiz != null)
-            exito = eliminar(clave, this.raiz, null);
+    /**
+     * Arma la tabla de una sola vez a partir de claves ordenadas, en O(n) en lugar de insertarlas de a una
+     * rebalanceando en cada alta. El árbol queda perfectamente balanceado: cada nodo tiene la clave del medio de su
+     * parte del arreglo.
+     *
+     * @param claves claves ordenadas de menor a mayor y sin repetir
+     * @param datos  dato de cada clave, en la misma posición
+     * @return verdadero si la tabla estaba vacía y los arreglos son válidos, en caso contrario no se modifica la
+     * tabla y devuelve falso
+     */
+    public boolean construirDesdeOrdenados(C[] claves, D[] datos) {
+        boolean validos = this.raiz == null && claves != null && datos != null && claves.length == datos.length;
+
+        for (int i = 0; validos && i < claves.length; i++)
+            validos = claves[i] != null && datos[i] != null && (i == 0 || claves[i - 1].compareTo(claves[i]) < 0);
+        if (validos)
+            this.raiz = construir(claves, datos, 0, claves.length - 1);
+        return validos;
+    }
 
-        return exito;
+    private Nodo<C, D> construir(C[] claves, D[] datos, int desde, int hasta) {
+        Nodo<C, D> nodo = null;
+        if (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            nodo = new Nodo<>(claves[medio], datos[medio]);
+            nodo.setIzq(construir(claves, datos, desde, medio - 1));
+            nodo.setDer(construir(claves, datos, medio + 1, hasta));
+            nodo.recalcular();
+        }
+        return nodo;
     }
 
-    private boolean eliminar(C clave, Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
+    @Override
+    public boolean eliminar(C clave) {
         boolean exito = false;
 
-        if (nodo != null) {
-            if (clave.equals(nodo.getClave())) {
-                if (nodo.tieneIzq() && nodo.tieneDer()) {
-                    eliminarNodoConAmbosHijos(nodo, nodoPadre);
-                } else if (nodo.tieneIzq() || nodo.tieneDer()) {
-                    eliminarNodoConUnHijo(nodo, nodoPadre);
-                } else {
-                    eliminarNodoHoja(nodo, nodoPadre);
-                }
-                exito = true;
-            } else {
-                if (clave.compareTo(nodo.getClave()) < 0) {
-                    exito = eliminar(clave, nodo.getIzq(), nodo);
+        if (clave != null && this.raiz != null) {
+            Nodo<C, D> nodo = this.raiz, nodoPadre = null;
+            int tope = 0, comparacion;
+
+            while (!exito && nodo != null) {
+                comparacion = clave.compareTo(nodo.getClave());
+                if (comparacion == 0) {
+                    if (nodo.tieneIzq() && nodo.tieneDer()) {
+                        eliminarNodoConAmbosHijos(nodo);
+                        tope = apilar(nodo, tope); // el nodo queda en el árbol con el dato de su sucesor
+                    } else {
+                        eliminarNodoConHijoOHoja(nodo, nodoPadre);
+                    }
+                    exito = true;
                 } else {
-                    exito = eliminar(clave, nodo.getDer(), nodo);
+                    tope = apilar(nodo, tope);
+                    nodoPadre = nodo;
+                    nodo = comparacion < 0 ? nodo.getIzq() : nodo.getDer();
                 }
             }
-        }
-        if (exito) {
-            nodo.recalcularAltura();
-            balancear(nodo, nodoPadre);
-        }
-
-        return exito;
-    }
-
-    private void eliminarNodoHoja(Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
-        if (nodoPadre == null) { // si es la raíz
-            this.raiz = null;
-        } else { // si es un nodo interno
-            if (nodoPadre.getIzq() == nodo)
-                nodoPadre.setIzq(null);
+            if (exito)
+                rebalancear(tope);
             else
-                nodoPadre.setDer(null);
+                desapilar(tope);
         }
+        return exito;
     }
 
-    private void eliminarNodoConUnHijo(Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
-        Nodo<C, D> enlace;
-        if (nodo.tieneIzq())
-            enlace = nodo.getIzq();
-        else
-            enlace = nodo.getDer();
+    private void eliminarNodoConHijoOHoja(Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
+        Nodo<C, D> enlace = nodo.tieneIzq() ? nodo.getIzq() : nodo.getDer();
 
         if (nodoPadre == null) { // si es raíz
-            raiz = enlace;
+            this.raiz = enlace;
         } else { // si es un nodo interno
             if (nodo == nodoPadre.getIzq())
                 nodoPadre.setIzq(enlace);
@@ -185,61 +230,49 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
         }
     }
 
-    private void eliminarNodoConAmbosHijos(Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
-        Nodo<C, D> nodoCandidatoDer = buscarCandidatoMenor(nodo.getDer(), nodo);
-
-        if (nodoPadre == null) { // si es raíz
-            this.raiz.setClave(nodoCandidatoDer.getClave());
-            this.raiz.setDato(nodoCandidatoDer.getDato());
-        } else { // si es un nodo interno
-            nodo.setClave(nodoCandidatoDer.getClave());
-            nodo.setDato(nodoCandidatoDer.getDato());
-        }
-    }
-
-    private Nodo<C, D> buscarCandidatoMenor(Nodo<C, D> nodo, Nodo<C, D> nodoPadre) {
-        Nodo<C, D> nodoCandidato;
+    /**
+     * Reemplaza el nodo por el menor de su subárbol derecho y quita ese nodo de donde estaba.
+     */
+    private void eliminarNodoConAmbosHijos(Nodo<C, D> nodo) {
+        Nodo<C, D> nodoCandidato = nodo.getDer(), nodoPadre = nodo;
 
-        if (!nodo.tieneIzq()) {
-            nodoCandidato = nodo;
-            if (nodoCandidato == nodoPadre.getDer()) { // si el candidato es el hijo inmediato al nodo a eliminar
-                nodoPadre.setDer(nodoCandidato.getDer());
-            } else {
-                nodoPadre.setIzq(nodoCandidato.getDer());
-            }
-        } else {
-            nodoCandidato = buscarCandidatoMenor(nodo.getIzq(), nodo);
+        while (nodoCandidato.tieneIzq()) {
+            nodoCandidato.tamanio--; // el candidato sale de todos los subárboles del camino hasta él
+            nodoPadre = nodoCandidato;
+            nodoCandidato = nodoCandidato.getIzq();
         }
-
-        return nodoCandidato;
+        if (nodoPadre == nodo) // si el candidato es el hijo inmediato al nodo a eliminar
+            nodoPadre.setDer(nodoCandidato.getDer());
+        else
+            nodoPadre.setIzq(nodoCandidato.getDer());
+        nodo.setClave(nodoCandidato.getClave());
+        nodo.setDato(nodoCandidato.getDato());
     }
 
     @Override
     public boolean existeClave(C clave) {
-        return obtenerNodo(clave, this.raiz) != null;
+        return obtenerNodo(clave) != null;
     }
 
+    /**
+     * @return el dato con la clave, null si no existe
+     */
     @Override
     public D obtenerDato(C clave) {
-        return obtenerNodo(clave, this.raiz).getDato();
+        Nodo<C, D> nodo = obtenerNodo(clave);
+        return nodo != null ? nodo.getDato() : null;
     }
 
-    private Nodo<C, D> obtenerNodo(C clave, Nodo<C, D> nodo) {
-        Nodo<C, D> nodo1 = null;
-
-        if (clave != null && nodo != null) {
-            if (clave.equals(nodo.getClave())) {
-                nodo1 = nodo;
-            } else {
-                if (clave.compareTo(nodo.getClave()) < 0) {
-                    nodo1 = obtenerNodo(clave, nodo.getIzq());
-                } else {
-                    nodo1 = obtenerNodo(clave, nodo.getDer());
-                }
-            }
-        }
+    /**
+     * Baja desde la raíz con una sola comparación por nivel.
+     */
+    private Nodo<C, D> obtenerNodo(C clave) {
+        Nodo<C, D> nodo = clave != null ? this.raiz : null;
+        int comparacion;
 
-        return nodo1;
+        while (nodo != null && (comparacion = clave.compareTo(nodo.getClave())) != 0)
+            nodo = comparacion < 0 ? nodo.getIzq() : nodo.getDer();
+        return nodo;
     }
 
     @Override
@@ -290,6 +323,145 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
         }
     }
 
+    /**
+     * Devuelve un iterador sobre los datos en el orden de las claves, igual que listarDatosOrdenados pero sin armar
+     * la lista: guarda solo el camino al dato siguiente, O(log n) de memoria, y cada dato se busca recién cuando se
+     * lo pide. La tabla no se debe modificar mientras se recorre.
+     */
+    public Iterator<D> iteradorDatos() {
+        return new IteradorDatos(null, null);
+    }
+
+    /**
+     * Igual que iteradorDatos() pero empieza directamente en el primer dato con clave mayor o igual a claveMin, en
+     * O(log n), y termina después del último con clave menor o igual a claveMax. Null en alguna de las claves para
+     * no limitar ese extremo.
+     */
+    public Iterator<D> iteradorDatos(C claveMin, C claveMax) {
+        return new IteradorDatos(claveMin, claveMax);
+    }
+
+    /**
+     * @return spliterator ordenado sobre los datos, con la cantidad de datos conocida, ver iteradorDatos
+     */
+    public Spliterator<D> spliteratorDatos() {
+        return Spliterators.spliterator(iteradorDatos(), tamanio(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Igual que listarRango(claveMin, claveMax) pero devuelve solo una página del rango, sin recorrer los datos
+     * anteriores a ella. O(log n + limite).
+     *
+     * @param desplazamiento cantidad de datos del rango que se saltean
+     * @param limite         cantidad máxima de datos a devolver
+     * @return lista ordenada con los datos de la página, vacía si el rango no tiene tantos datos
+     */
+    public Lista<D> listarRango(C claveMin, C claveMax, int desplazamiento, int limite) {
+        Lista<D> lista = new ListaDinamica<>();
+
+        if (claveMin != null && claveMax != null && desplazamiento >= 0 && limite > 0) {
+            int menores = rango(claveMin);
+            int cantidad = Math.min(cantidadMenores(claveMax, true) - menores - desplazamiento, limite);
+            int antes = menores + desplazamiento; // nodos anteriores al primero de la página
+            PilaDinamica<Nodo<C, D>> pila = new PilaDinamica<>();
+            Nodo<C, D> nodo = cantidad > 0 ? this.raiz : null;
+
+            // baja hasta el primero de la página guardando los ancestros que le siguen en orden
+            while (nodo != null) {
+                int izq = Nodo.tamanio(nodo.getIzq());
+                if (antes <= izq) {
+                    pila.apilar(nodo);
+                    nodo = antes < izq ? nodo.getIzq() : null;
+                } else {
+                    antes -= izq + 1;
+                    nodo = nodo.getDer();
+                }
+            }
+            while (cantidad > 0 && !pila.esVacia()) {
+                nodo = pila.obtenerTope();
+                pila.desapilar();
+                lista.insertar(nodo.getDato());
+                cantidad--;
+                for (nodo = nodo.getDer(); nodo != null; nodo = nodo.getIzq())
+                    pila.apilar(nodo);
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Cuenta las claves entre claveMin y claveMax, inclusive, en O(log n).
+     */
+    public int contarRango(C claveMin, C claveMax) {
+        int cantidad = 0;
+        if (claveMin != null && claveMax != null && claveMin.compareTo(claveMax) <= 0)
+            cantidad = cantidadMenores(claveMax, true) - rango(claveMin);
+        return cantidad;
+    }
+
+    /**
+     * @return la cantidad de claves menores a la clave, que es la posición que tiene o tendría en listarClaves menos
+     * uno
+     */
+    public int rango(C clave) {
+        return cantidadMenores(clave, false);
+    }
+
+    /**
+     * @param pos posición en el orden de las claves, desde 1
+     * @return la clave en esa posición, null si la posición no es válida
+     */
+    public C seleccionar(int pos) {
+        Nodo<C, D> nodo = pos >= 1 && pos <= Nodo.tamanio(this.raiz) ? this.raiz : null;
+        C clave = null;
+        int izq;
+
+        while (clave == null && nodo != null) {
+            izq = Nodo.tamanio(nodo.getIzq());
+            if (pos <= izq) {
+                nodo = nodo.getIzq();
+            } else if (pos == izq + 1) {
+                clave = nodo.getClave();
+            } else {
+                pos -= izq + 1;
+                nodo = nodo.getDer();
+            }
+        }
+        return clave;
+    }
+
+    /**
+     * @return la cantidad de nodos del árbol
+     */
+    public int tamanio() {
+        return Nodo.tamanio(this.raiz);
+    }
+
+    /**
+     * Suma los tamaños de los subárboles izquierdos al bajar hacia la clave, con una comparación por nivel.
+     *
+     * @return la cantidad de claves menores a la clave, o menores o iguales si incluirIgual
+     */
+    private int cantidadMenores(C clave, boolean incluirIgual) {
+        Nodo<C, D> nodo = clave != null ? this.raiz : null;
+        int cantidad = 0, comparacion;
+
+        while (nodo != null) {
+            comparacion = clave.compareTo(nodo.getClave());
+            if (comparacion == 0) {
+                cantidad += Nodo.tamanio(nodo.getIzq()) + (incluirIgual ? 1 : 0);
+                nodo = null;
+            } else if (comparacion < 0) {
+                nodo = nodo.getIzq();
+            } else {
+                cantidad += Nodo.tamanio(nodo.getIzq()) + 1;
+                nodo = nodo.getDer();
+            }
+        }
+        return cantidad;
+    }
+
     @Override
     public boolean esVacio() {
         return this.raiz == null;
@@ -367,10 +539,51 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
         }
     }
 
+    /**
+     * Recorrido en orden con una pila explícita. La pila tiene los nodos cuyo dato todavía no se devolvió y cuyo
+     * subárbol izquierdo ya se recorrió, así el tope es siempre el siguiente.
+     */
+    private class IteradorDatos implements Iterator<D> {
+        private final PilaDinamica<Nodo<C, D>> pila;
+        private final C claveMax;
+
+        private IteradorDatos(C claveMin, C claveMax) {
+            Nodo<C, D> nodo = raiz;
+
+            this.pila = new PilaDinamica<>();
+            this.claveMax = claveMax;
+            while (nodo != null) { // baja hacia claveMin guardando los nodos que no son menores
+                if (claveMin == null || claveMin.compareTo(nodo.getClave()) <= 0) {
+                    pila.apilar(nodo);
+                    nodo = nodo.getIzq();
+                } else {
+                    nodo = nodo.getDer();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pila.esVacia() && (claveMax == null || claveMax.compareTo(pila.obtenerTope().getClave()) >= 0);
+        }
+
+        @Override
+        public D next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Nodo<C, D> nodo = pila.obtenerTope();
+            pila.desapilar();
+            for (Nodo<C, D> sig = nodo.getDer(); sig != null; sig = sig.getIzq())
+                pila.apilar(sig);
+            return nodo.getDato();
+        }
+    }
+
     private static class Nodo<C, D> implements Serializable {
         private C clave;
         private D dato;
         private int altura;
+        private int tamanio; // cantidad de nodos del subárbol
         private Nodo<C, D> izq, der;
 
         public Nodo(C clave, D dato, Nodo<C, D> izq, Nodo<C, D> der) {
@@ -379,12 +592,14 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
             this.izq = izq;
             this.der = der;
             this.altura = 0;
+            this.tamanio = 1 + tamanio(izq) + tamanio(der);
         }
 
         public Nodo(C clave, D dato) {
             this.clave = clave;
             this.dato = dato;
             this.izq = this.der = null;
+            this.tamanio = 1;
         }
 
         public C getClave() {
@@ -431,7 +646,10 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
             return altura;
         }
 
-        public void recalcularAltura() {
+        /**
+         * Recalcula la altura y el tamaño a partir de los hijos.
+         */
+        public void recalcular() {
             int altIzq = -1, altDer = -1;
             if (izq != null) {
                 altIzq = izq.getAltura();
@@ -440,6 +658,11 @@ public class TablaBusqueda<C extends Comparable<C>, D> implements Diccionario<C,
                 altDer = der.getAltura();
             }
             altura = Math.max(altIzq, altDer) + 1;
+            tamanio = 1 + tamanio(izq) + tamanio(der);
+        }
+
+        private static int tamanio(Nodo<?, ?> nodo) {
+            return nodo != null ? nodo.tamanio : 0;
         }
 
         @Override
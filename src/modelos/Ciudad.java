@@ -60,6 +60,11 @@ public class Ciudad implements Serializable {
         return Objects.equals(nombre, ciudad.nombre);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(nombre);
+    }
+
     @Override
     public String toString() {
         return nombre + "{" +
@@ -0,0 +1,55 @@
+package test.estructuras;
+
+import estructuras.propositoEspecifico.ColaPrioridadIndexada;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColaPrioridadIndexadaTest {
+    ColaPrioridadIndexada cola;
+
+    @BeforeEach
+    void setUp() {
+        cola = new ColaPrioridadIndexada(8);
+    }
+
+    @Test
+    void insertar() {
+        assertTrue(cola.estaVacia());
+        assertTrue(cola.insertar(3, 30));
+        assertTrue(cola.insertar(1, 10));
+        assertTrue(cola.insertar(5, 50));
+        assertFalse(cola.insertar(8, 1));
+        assertFalse(cola.insertar(-1, 1));
+        assertFalse(cola.insertar(3, 40)); // no aumenta la prioridad
+        assertTrue(cola.insertar(5, 5)); // disminuye la prioridad
+        assertTrue(cola.contiene(5));
+        assertFalse(cola.contiene(2));
+        assertEquals(5, cola.obtenerFrente());
+        assertEquals(5, cola.obtenerPrioridadFrente());
+    }
+
+    @Test
+    void eliminarFrente() {
+        assertFalse(cola.eliminarFrente());
+        cola.insertar(4, 7);
+        cola.insertar(2, 7);
+        cola.insertar(6, 1);
+        cola.insertar(0, 9);
+        cola.insertar(7, 3);
+
+        int[] esperado = {6, 7, 2, 4, 0}; // a igual prioridad sale primero el indice menor
+        for (int indice : esperado) {
+            assertEquals(indice, cola.obtenerFrente());
+            assertTrue(cola.eliminarFrente());
+            assertFalse(cola.contiene(indice));
+        }
+        assertTrue(cola.estaVacia());
+
+        cola.insertar(1, 1);
+        cola.vaciar();
+        assertTrue(cola.estaVacia());
+        assertTrue(cola.insertar(1, 2));
+    }
+}
@@ -0,0 +1,33 @@
+package test.estructuras;
+
+import estructuras.propositoEspecifico.ConjuntosDisjuntos;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConjuntosDisjuntosTest {
+
+    @Test
+    void unir() {
+        ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(2);
+        for (int i = 0; i < 6; i++)
+            assertEquals(i, conjuntos.agregar());
+        assertEquals(6, conjuntos.cantidad());
+        assertEquals(6, conjuntos.cantidadConjuntos());
+
+        assertTrue(conjuntos.unir(0, 1));
+        assertTrue(conjuntos.unir(2, 3));
+        assertTrue(conjuntos.unir(1, 3));
+        assertFalse(conjuntos.unir(0, 2));
+        assertEquals(3, conjuntos.cantidadConjuntos());
+        assertTrue(conjuntos.mismoConjunto(0, 3));
+        assertFalse(conjuntos.mismoConjunto(0, 4));
+        assertEquals(conjuntos.buscar(0), conjuntos.buscar(2));
+        assertEquals(5, conjuntos.buscar(5));
+
+        conjuntos.vaciar();
+        assertEquals(0, conjuntos.cantidad());
+        assertEquals(0, conjuntos.agregar());
+        assertEquals(1, conjuntos.cantidadConjuntos());
+    }
+}
@@ -1,10 +1,16 @@
 package test.estructuras;
 
 import estructuras.grafo.DigrafoEtiquetado;
+import estructuras.grafo.GrafoCompacto;
+import estructuras.grafo.GrafoEtiquetado;
+import estructuras.grafo.GrafoEtiquetadoEnteros;
+import estructuras.grafo.JerarquiaContraccion;
 import estructuras.lineales.Lista;
 import estructuras.lineales.ListaDinamica;
 import org.junit.jupiter.api.Test;
 
+import java.util.Iterator;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DigrafoEtiquetadoTest {
@@ -82,6 +88,14 @@ class DigrafoEtiquetadoTest {
         assertEquals(le, grafo.listarEnProfundidad());
         le = new ListaDinamica<>(new Character[]{'a', 'b', 'd', 'f', 'e', 'g', 'c', 'h'});
         assertEquals(le, grafo.listarEnAnchura());
+
+        // a e se llega desde varios vértices pero se lista una sola vez
+        grafo.insertarArco('f', 'e');
+        grafo.insertarArco('b', 'e');
+        le = new ListaDinamica<>(new Character[]{'a', 'b', 'e', 'd', 'f', 'g', 'c', 'h'});
+        assertEquals(le, grafo.listarEnAnchura());
+        le = new ListaDinamica<>(new Character[]{'a', 'b', 'e', 'd', 'g', 'f', 'c', 'h'});
+        assertEquals(le, grafo.listarEnProfundidad());
     }
 
     @Test
@@ -238,7 +252,8 @@ class DigrafoEtiquetadoTest {
         caminoEsp = new ListaDinamica<>(new Character[]{'a', 'c', 'd', 'g', 'f', 'c', 'e', 'f', 'a', 'b', 'e', 'g', 'd', 'b', 'h'});
         assertEquals(caminoEsp, grafo.caminoMasLargo('a', 'h'), grafo.toString());
 
-        caminoEsp = new ListaDinamica<>(new Character[]{'a', 'b', 'h', 'f', 'c', 'd', 'b'});
+        // el camino de h a b puede volver a usar el arco a -> b
+        caminoEsp = new ListaDinamica<>(new Character[]{'a', 'b', 'h', 'f', 'a', 'b'});
         assertEquals(caminoEsp, grafo.caminoMasCorto('a', 'h', 'b'), grafo.toString());
     }
 
@@ -259,6 +274,581 @@ class DigrafoEtiquetadoTest {
         assertEquals(caminoEsp, grafo.caminoMasCorto('a', 'c', 'd'), grafo.toString());
     }
 
+    @Test
+    void caminoMasCortoPasandoPor() {
+        GrafoEtiquetado<String> grafo = new GrafoEtiquetado<>();
+        grafo.insertarVertice("MOSCU");
+        grafo.insertarVertice("KAZAN");
+        grafo.insertarVertice("SOCHI");
+        grafo.insertarVertice("SAMARA");
+        grafo.insertarVertice("KALININGRADO");
+        grafo.insertarArco("MOSCU", "KAZAN", 800);
+        grafo.insertarArco("MOSCU", "SOCHI", 1600);
+        grafo.insertarArco("KAZAN", "SAMARA", 350);
+        grafo.insertarArco("SAMARA", "SOCHI", 1400);
+        grafo.insertarArco("MOSCU", "KALININGRADO", 1200);
+
+        // Kaliningrado no tiene otra salida, se vuelve por la misma ruta
+        Lista<String> intermedios = new ListaDinamica<>(new String[]{"KALININGRADO"});
+        assertEquals(new ListaDinamica<>(new String[]{"KAZAN", "MOSCU", "KALININGRADO", "MOSCU", "SOCHI"}),
+                grafo.caminoMasCortoPasandoPor("KAZAN", intermedios, "SOCHI"));
+        assertEquals(grafo.caminoMasCortoPasandoPor("KAZAN", intermedios, "SOCHI"),
+                grafo.caminoMasCorto("KAZAN", "KALININGRADO", "SOCHI"));
+
+        intermedios = new ListaDinamica<>(new String[]{"SAMARA", "MOSCU"});
+        assertEquals(new ListaDinamica<>(new String[]{"SOCHI", "SAMARA", "KAZAN", "MOSCU", "KALININGRADO"}),
+                grafo.caminoMasCortoPasandoPor("SOCHI", intermedios, "KALININGRADO"));
+
+        assertEquals(new ListaDinamica<>(new String[]{"MOSCU", "KAZAN"}),
+                grafo.caminoMasCortoPasandoPor("MOSCU", new ListaDinamica<>(), "KAZAN"));
+
+        // despues de cambiar el grafo no se usan las distancias anteriores
+        grafo.eliminarArco("MOSCU", "KALININGRADO");
+        intermedios = new ListaDinamica<>(new String[]{"KALININGRADO"});
+        assertTrue(grafo.caminoMasCortoPasandoPor("KAZAN", intermedios, "SOCHI").estaVacia());
+        intermedios = new ListaDinamica<>(new String[]{"ROSTOV"});
+        assertTrue(grafo.caminoMasCortoPasandoPor("KAZAN", intermedios, "SOCHI").estaVacia());
+    }
+
+    @Test
+    void caminoMasCortoEmpate() {
+        DigrafoEtiquetado<Character> grafo = new DigrafoEtiquetado<>();
+        grafo.insertarVertice('e');
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'b', 2);
+        grafo.insertarArco('a', 'c', 1);
+        grafo.insertarArco('c', 'd', 1);
+        grafo.insertarArco('b', 'e', 2);
+        grafo.insertarArco('d', 'e', 2);
+        grafo.insertarArco('a', 'e', 5);
+
+        // los caminos a-b-e y a-c-d-e miden 4, gana el primero segun el orden de los adyacentes de 'a'
+        Lista<Character> caminoEsp = new ListaDinamica<>(new Character[]{'a', 'c', 'd', 'e'});
+        assertEquals(caminoEsp, grafo.caminoMasCorto('a', 'e'));
+
+        assertTrue(grafo.eliminarVertice('c'));
+        caminoEsp = new ListaDinamica<>(new Character[]{'a', 'b', 'e'});
+        assertEquals(caminoEsp, grafo.caminoMasCorto('a', 'e'));
+        assertTrue(grafo.caminoMasCorto('a', 'd').estaVacia());
+
+        grafo.vaciar();
+        grafo.insertarVertice('a');
+        caminoEsp = new ListaDinamica<>(new Character[]{'a'});
+        assertEquals(caminoEsp, grafo.caminoMasCorto('a', 'a'));
+    }
+
+    @Test
+    void caminoConMenosVertices() {
+        DigrafoEtiquetado<Character> grafo = new DigrafoEtiquetado<>();
+        Lista<Character> caminoEsp;
+        grafo.insertarVertice('f');
+        grafo.insertarVertice('e');
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'b', 1);
+        grafo.insertarArco('a', 'c', 9);
+        grafo.insertarArco('b', 'd', 1);
+        grafo.insertarArco('c', 'd', 9);
+        grafo.insertarArco('d', 'e', 1);
+        grafo.insertarArco('e', 'a', 1);
+        grafo.insertarArco('b', 'e', 5);
+
+        caminoEsp = new ListaDinamica<>(new Character[]{'a', 'b', 'e'});
+        assertEquals(caminoEsp, grafo.caminoConMenosVertices('a', 'e'));
+        assertEquals(caminoEsp, grafo.caminoConMenosVerticesBidireccional('a', 'e'));
+
+        // a-b-d y a-c-d tienen los mismos vertices, gana el primero segun el orden de los adyacentes de 'a'
+        caminoEsp = new ListaDinamica<>(new Character[]{'a', 'c', 'd'});
+        assertEquals(caminoEsp, grafo.caminoConMenosVertices('a', 'd'));
+        assertEquals(caminoEsp, grafo.caminoConMenosVerticesBidireccional('a', 'd'));
+
+        caminoEsp = new ListaDinamica<>(new Character[]{'d', 'e', 'a', 'c'});
+        assertEquals(caminoEsp, grafo.caminoConMenosVertices('d', 'c'));
+        assertEquals(caminoEsp, grafo.caminoConMenosVerticesBidireccional('d', 'c'));
+
+        assertTrue(grafo.caminoConMenosVertices('a', 'f').estaVacia());
+        assertTrue(grafo.caminoConMenosVerticesBidireccional('a', 'f').estaVacia());
+
+        assertTrue(grafo.eliminarArco('e', 'a'));
+        assertTrue(grafo.caminoConMenosVerticesBidireccional('d', 'c').estaVacia());
+    }
+
+    @Test
+    void iteradorCaminos() {
+        DigrafoEtiquetado<Character> grafo = new DigrafoEtiquetado<>();
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'd', 10);
+        grafo.insertarArco('a', 'c', 1);
+        grafo.insertarArco('a', 'b', 1);
+        grafo.insertarArco('b', 'c', 1);
+        grafo.insertarArco('b', 'd', 5);
+        grafo.insertarArco('c', 'd', 1);
+        grafo.insertarArco('c', 'a', 1);
+
+        Iterator<Lista<Character>> iterador = grafo.iteradorCaminos('a', 'd');
+        Lista<Lista<Character>> caminos = grafo.caminosPosibles('a', 'd');
+        int cant = 0;
+        while (iterador.hasNext()) {
+            cant++;
+            assertEquals(caminos.recuperar(cant), iterador.next());
+        }
+        assertEquals(4, cant);
+        assertFalse(iterador.hasNext());
+
+        // como maximo 2 caminos
+        iterador = grafo.iteradorCaminos('a', 'd', 2, DigrafoEtiquetado.SIN_LIMITE, DigrafoEtiquetado.SIN_LIMITE);
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'd'}), iterador.next());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'c', 'd'}), iterador.next());
+        assertFalse(iterador.hasNext());
+
+        // como maximo 2 arcos y 6 km
+        Lista<Lista<Character>> filtrados = new ListaDinamica<>();
+        grafo.forEachCamino('a', 'd', DigrafoEtiquetado.SIN_LIMITE, 2, 6, filtrados::insertar);
+        assertEquals(2, filtrados.longitud());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'd'}), filtrados.recuperar(1));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'c', 'd'}), filtrados.recuperar(2));
+
+        assertFalse(grafo.iteradorCaminos('d', 'a').hasNext());
+        assertFalse(grafo.iteradorCaminos('a', 'z').hasNext());
+        assertEquals(new ListaDinamica<>(new Character[]{'a'}), grafo.iteradorCaminos('a', 'a').next());
+    }
+
+    @Test
+    void caminosMasCortos() {
+        DigrafoEtiquetado<Character> grafo = new DigrafoEtiquetado<>();
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'd', 10);
+        grafo.insertarArco('a', 'c', 1);
+        grafo.insertarArco('a', 'b', 1);
+        grafo.insertarArco('b', 'c', 1);
+        grafo.insertarArco('b', 'd', 5);
+        grafo.insertarArco('c', 'd', 1);
+        grafo.insertarArco('c', 'a', 1);
+
+        Iterator<Lista<Character>> iterador = grafo.iteradorCaminosMasCortos('a', 'd');
+        assertEquals(grafo.caminoMasCorto('a', 'd'), iterador.next());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'c', 'd'}), iterador.next());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'd'}), iterador.next());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'd'}), iterador.next());
+        assertFalse(iterador.hasNext());
+
+        Lista<Lista<Character>> caminos = grafo.caminosMasCortos('a', 'd', 2);
+        assertEquals(2, caminos.longitud());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'c', 'd'}), caminos.recuperar(1));
+        assertEquals(4, grafo.caminosMasCortos('a', 'd', 10).longitud());
+        assertTrue(grafo.caminosMasCortos('d', 'a', 3).estaVacia());
+        assertTrue(grafo.caminosMasCortos('a', 'z', 3).estaVacia());
+        assertEquals(new ListaDinamica<>(new Character[]{'a'}), grafo.caminosMasCortos('a', 'a', 3).recuperar(1));
+
+        // en un grafo no dirigido no repite vértices
+        GrafoEtiquetado<Integer> grafoNoDirigido = new GrafoEtiquetado<>();
+        for (int i = 0; i < 3; i++)
+            grafoNoDirigido.insertarVertice(i);
+        grafoNoDirigido.insertarArco(0, 1, 1);
+        grafoNoDirigido.insertarArco(1, 2, 1);
+        grafoNoDirigido.insertarArco(0, 2, 5);
+        assertEquals(grafoNoDirigido.caminosPosibles(0, 2).longitud(),
+                grafoNoDirigido.caminosMasCortos(0, 2, 10).longitud());
+    }
+
+    @Test
+    void mantenerCaminosMinimos() {
+        DigrafoEtiquetado<Character> grafo = new DigrafoEtiquetado<>();
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'b', 1);
+        grafo.insertarArco('b', 'c', 1);
+        grafo.insertarArco('c', 'd', 1);
+        grafo.insertarArco('a', 'd', 5);
+
+        assertTrue(grafo.mantenerCaminosMinimos('a'));
+        assertFalse(grafo.mantenerCaminosMinimos('z'));
+        assertEquals(3, grafo.distanciaMinima('a', 'd'));
+        long version = grafo.versionCaminosMinimos('a');
+
+        // un arco que no acorta ningún camino no cambia la versión de los caminos desde 'a'
+        grafo.insertarArco('d', 'a', 1);
+        assertEquals(version, grafo.versionCaminosMinimos('a'));
+        assertEquals(grafo.getVersion(), grafo.versionCaminosMinimos('b'));
+
+        // al quitar un arco del camino mínimo se recalcula desde 'c'
+        grafo.eliminarArco('b', 'c');
+        assertNotEquals(version, grafo.versionCaminosMinimos('a'));
+        assertEquals(5, grafo.distanciaMinima('a', 'd'));
+        assertEquals(-1, grafo.distanciaMinima('a', 'c'));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'd'}), grafo.caminoMasCorto('a', 'd'));
+
+        // al bajar una etiqueta se propaga la mejora
+        assertTrue(grafo.modificarEtiqueta('a', 'd', 1));
+        assertFalse(grafo.modificarEtiqueta('b', 'c', 1));
+        assertEquals(1, grafo.distanciaMinima('a', 'd'));
+        assertTrue(grafo.modificarEtiqueta('a', 'd', 7));
+        assertEquals(7, grafo.distanciaMinima('a', 'd'));
+
+        // al eliminar un vértice se reparan los caminos que pasaban por él
+        grafo.insertarArco('b', 'c', 1);
+        assertEquals(3, grafo.distanciaMinima('a', 'd'));
+        grafo.eliminarVertice('b');
+        assertEquals(7, grafo.distanciaMinima('a', 'd'));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'd'}),
+                grafo.caminoMasCortoPasandoPor('a', new ListaDinamica<>(), 'd'));
+        // 'a' pasó a tener el id de 'b', los arcos entrantes siguen siendo correctos para reparar
+        grafo.insertarVertice('e');
+        grafo.insertarArco('a', 'e', 1);
+        grafo.insertarArco('e', 'd', 1);
+        assertEquals(2, grafo.distanciaMinima('a', 'd'));
+        grafo.eliminarArco('e', 'd');
+        assertEquals(7, grafo.distanciaMinima('a', 'd'));
+
+        // en el grafo no dirigido la etiqueta cambia en ambos sentidos
+        GrafoEtiquetado<Integer> grafoNoDirigido = new GrafoEtiquetado<>();
+        for (int i = 0; i < 3; i++)
+            grafoNoDirigido.insertarVertice(i);
+        grafoNoDirigido.insertarArco(0, 1, 1);
+        grafoNoDirigido.insertarArco(1, 2, 1);
+        grafoNoDirigido.insertarArco(0, 2, 5);
+        grafoNoDirigido.mantenerCaminosMinimos(2);
+        assertTrue(grafoNoDirigido.modificarEtiqueta(1, 0, 10));
+        assertEquals(5, grafoNoDirigido.distanciaMinima(2, 0));
+        assertEquals(5, grafoNoDirigido.distanciaMinima(0, 2));
+
+        // se mantienen como mucho MAX_ORIGENES_MANTENIDOS orígenes, se descarta el usado hace más tiempo
+        int cantidad = DigrafoEtiquetado.MAX_ORIGENES_MANTENIDOS + 2;
+        for (int i = 3; i < cantidad; i++) {
+            grafoNoDirigido.insertarVertice(i);
+            grafoNoDirigido.insertarArco(i - 1, i, 1);
+        }
+        grafoNoDirigido.mantenerCaminosMinimos(0);
+        long versionCero = grafoNoDirigido.versionCaminosMinimos(0);
+        for (int i = 1; i < cantidad - 2; i++) // con el 2, que ya se mantenía, se llega al máximo
+            grafoNoDirigido.mantenerCaminosMinimos(i);
+        grafoNoDirigido.insertarVertice(cantidad);
+        assertEquals(versionCero, grafoNoDirigido.versionCaminosMinimos(0));
+        grafoNoDirigido.mantenerCaminosMinimos(cantidad - 1);
+        assertEquals(grafoNoDirigido.getVersion(), grafoNoDirigido.versionCaminosMinimos(0));
+        assertEquals(5 + cantidad - 3, grafoNoDirigido.distanciaMinima(0, cantidad - 1));
+    }
+
+    @Test
+    void distanciaMinima() {
+        GrafoEtiquetado<Character> grafo = new GrafoEtiquetado<>();
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'b', 4);
+        grafo.insertarArco('a', 'c', 1);
+        grafo.insertarArco('c', 'b', 2);
+        grafo.insertarArco('b', 'd', 5);
+
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'c', 'b', 'd'}), grafo.caminoMasCorto('a', 'd'));
+        assertEquals(8, grafo.distanciaMinima('a', 'd'));
+        assertEquals(8, grafo.distanciaMinima('d', 'a'));
+        assertEquals(0, grafo.distanciaMinima('c', 'c'));
+        assertEquals(-1, grafo.distanciaMinima('a', 'z'));
+
+        assertTrue(grafo.insertarArco('a', 'd', 6));
+        assertEquals(6, grafo.distanciaMinima('a', 'd'));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'd'}), grafo.caminoMasCorto('a', 'd'));
+        assertTrue(grafo.eliminarVertice('d'));
+        assertEquals(-1, grafo.distanciaMinima('a', 'd'));
+        assertTrue(grafo.caminoMasCorto('a', 'd').estaVacia());
+
+        // con etiquetas 0 hay más de un camino mínimo, se devuelve el primero según el orden de los adyacentes
+        grafo.insertarVertice('e');
+        grafo.insertarArco('b', 'e', 0);
+        grafo.insertarArco('c', 'e', 0);
+        assertEquals(1, grafo.distanciaMinima('a', 'b'));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'c', 'e', 'b'}), grafo.caminoMasCorto('a', 'b'));
+    }
+
+    @Test
+    void congelar() {
+        DigrafoEtiquetado<Character> grafo = new DigrafoEtiquetado<>();
+        grafo.insertarVertice('e');
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'd', 10);
+        grafo.insertarArco('a', 'c', 1);
+        grafo.insertarArco('a', 'b', 1);
+        grafo.insertarArco('b', 'c', 1);
+        grafo.insertarArco('c', 'd', 1);
+        grafo.insertarArco('d', 'a', 1);
+
+        GrafoCompacto<Character> copia = grafo.congelar();
+        assertEquals(5, copia.cantidadVertices());
+        assertEquals(6, copia.cantidadArcos());
+        assertTrue(copia.existeArco('a', 'b'));
+        assertFalse(copia.existeArco('b', 'a'));
+        assertEquals(grafo.caminoMasCorto('a', 'd'), copia.caminoMasCorto('a', 'd'));
+        assertEquals(2, copia.distanciaMinima('a', 'd'));
+        assertEquals(grafo.caminoConMenosVertices('b', 'a'), copia.caminoConMenosVertices('b', 'a'));
+        assertEquals(grafo.listarEnProfundidad(), copia.listarEnProfundidad());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'c', 'd', 'e'}), copia.listarEnAnchura());
+        assertTrue(copia.existeCamino('b', 'a'));
+        assertFalse(copia.existeCamino('a', 'e'));
+        Lista<Character> intermedios = new ListaDinamica<>(new Character[]{'c', 'a'});
+        assertEquals(grafo.caminoMasCortoPasandoPor('b', intermedios, 'd'),
+                copia.caminoMasCortoPasandoPor('b', intermedios, 'd'));
+        assertTrue(copia.caminoMasCortoPasandoPor('b', intermedios, 'e').estaVacia());
+
+        Lista<Character> origenes = new ListaDinamica<>(new Character[]{'a', 'b', 'z'});
+        Lista<Character> destinos = new ListaDinamica<>(new Character[]{'d', 'a', 'e'});
+        Character[][] siguientes = new Character[3][3];
+        int[][] distancias = copia.matrizDistancias(origenes, destinos, siguientes);
+        assertArrayEquals(new int[]{2, 0, -1}, distancias[0]);
+        assertArrayEquals(new int[]{2, 3, -1}, distancias[1]);
+        assertArrayEquals(new int[]{-1, -1, -1}, distancias[2]);
+        assertArrayEquals(new Character[]{'c', null, null}, siguientes[0]);
+        assertArrayEquals(new Character[]{'c', 'c', null}, siguientes[1]);
+        assertArrayEquals(distancias, copia.matrizDistancias(origenes, destinos, null));
+        assertEquals(grafo.caminosPosibles('a', 'd'), copia.caminosPosibles('a', 'd'));
+        assertEquals(grafo.caminosPosibles('b', 'b'), copia.caminosPosibles('b', 'b'));
+        assertTrue(copia.caminosPosibles('a', 'e').estaVacia());
+        Lista<Lista<Character>> recorridos = new ListaDinamica<>();
+        copia.forEachCamino('b', 'a', recorridos::insertar);
+        assertEquals(grafo.caminosPosibles('b', 'a'), recorridos);
+        assertEquals(grafo.caminoMasCorto('b', 'a', 'c'), copia.caminoMasCorto('b', 'a', 'c'));
+        assertEquals(2, copia.distanciaMinima('a', 'd'));
+        assertEquals(grafo.caminosMasCortos('a', 'd', 5), copia.caminosMasCortos('a', 'd', 5));
+        assertTrue(copia.caminosMasCortos('a', 'e', 5).estaVacia());
+        Iterator<Lista<Character>> caminosMasCortos = copia.iteradorCaminosMasCortos('a', 'd');
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'c', 'd'}), caminosMasCortos.next());
+
+        // los cambios posteriores no afectan a la copia ni a los caminos que faltan recorrer
+        grafo.eliminarVertice('c');
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'c', 'd'}), caminosMasCortos.next());
+        assertFalse(grafo.existeCamino('b', 'a'));
+        assertTrue(copia.existeCamino('b', 'a'));
+        assertTrue(copia.caminoMasCorto('a', 'z').estaVacia());
+    }
+
+    @Test
+    void distanciasPrecalculadas() {
+        GrafoEtiquetado<Character> grafo = new GrafoEtiquetado<>();
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'b', 4);
+        grafo.insertarArco('a', 'c', 1);
+        grafo.insertarArco('c', 'b', 2);
+        grafo.insertarArco('b', 'd', 5);
+
+        GrafoCompacto<Character> copia = grafo.congelar();
+        Lista<Character> sinTabla = copia.caminoMasCorto('a', 'd');
+        assertFalse(copia.distanciasPrecalculadas());
+        copia.precalcularDistancias();
+        assertTrue(copia.distanciasPrecalculadas());
+        assertEquals(sinTabla, copia.caminoMasCorto('a', 'd'));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'c', 'b', 'd'}), sinTabla);
+        assertEquals(8, copia.distanciaMinima('a', 'd'));
+        assertEquals(8, copia.distanciaMinima('d', 'a'));
+        assertEquals(0, copia.distanciaMinima('c', 'c'));
+        assertEquals(-1, copia.distanciaMinima('a', 'z'));
+        assertEquals(grafo.caminoMasCorto('d', 'b', 'a'), copia.caminoMasCorto('d', 'b', 'a'));
+        Character[][] siguientes = new Character[1][3];
+        int[][] distancias = copia.matrizDistancias(new ListaDinamica<>(new Character[]{'a'}),
+                new ListaDinamica<>(new Character[]{'d', 'a', 'z'}), siguientes);
+        assertArrayEquals(new int[]{8, 0, -1}, distancias[0]);
+        assertArrayEquals(new Character[]{'c', null, null}, siguientes[0]);
+
+        // la tabla corresponde a la copia, la de una versión posterior del grafo se arma de nuevo
+        assertTrue(grafo.insertarArco('a', 'd', 6));
+        assertEquals(8, copia.distanciaMinima('a', 'd'));
+        copia = grafo.congelar();
+        assertFalse(copia.distanciasPrecalculadas());
+        copia.precalcularDistancias();
+        assertEquals(6, copia.distanciaMinima('a', 'd'));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'd'}), copia.caminoMasCorto('a', 'd'));
+        assertTrue(grafo.eliminarVertice('d'));
+        copia = grafo.congelar();
+        copia.precalcularDistancias();
+        assertEquals(-1, copia.distanciaMinima('a', 'd'));
+        assertTrue(copia.caminoMasCorto('a', 'd').estaVacia());
+
+        // con etiquetas 0 el siguiente vértice puede formar un ciclo, igual se devuelve un camino mínimo
+        grafo.insertarVertice('e');
+        grafo.insertarArco('b', 'e', 0);
+        grafo.insertarArco('c', 'e', 0);
+        copia = grafo.congelar();
+        sinTabla = copia.caminoMasCorto('a', 'b');
+        copia.precalcularDistancias();
+        assertEquals(1, copia.distanciaMinima('a', 'b'));
+        assertEquals(sinTabla, copia.caminoMasCorto('a', 'b'));
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'c', 'e', 'b'}), sinTabla);
+    }
+
+    @Test
+    void numerar() {
+        GrafoEtiquetado<Character> grafo = new GrafoEtiquetado<>();
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'b', 1);
+        grafo.insertarArco('b', 'c', 1);
+        grafo.insertarArco('a', 'c', 5);
+
+        GrafoEtiquetadoEnteros<Character> enteros = grafo.numerar();
+        int a = enteros.numero('a'), b = enteros.numero('b'), c = enteros.numero('c'), d = enteros.numero('d');
+        assertEquals(4, enteros.cantidadVertices());
+        assertEquals(-1, enteros.numero('z'));
+        assertEquals('b', enteros.elemento(b));
+        assertTrue(enteros.existeArco(c, b)); // no dirigido como el original
+        assertEquals(2, enteros.distanciaMinima(a, c));
+        assertArrayEquals(new int[]{a, b, c}, enteros.caminoMasCorto(a, c));
+        assertEquals(0, enteros.caminoMasCorto(a, d).length);
+        assertEquals(-1, enteros.distanciaMinima(a, d));
+
+        // el camino se puede escribir en un arreglo reutilizado
+        int[] camino = new int[enteros.cantidadVertices()];
+        assertEquals(3, enteros.caminoMasCorto(c, a, camino));
+        assertEquals(c, camino[0]);
+        assertEquals(a, camino[2]);
+
+        assertTrue(enteros.modificarEtiqueta(b, c, 10));
+        assertEquals(10, enteros.etiqueta(c, b));
+        assertArrayEquals(new int[]{a, c}, enteros.caminoMasCorto(a, c));
+        assertTrue(enteros.insertarArco(c, d, 2));
+        assertFalse(enteros.insertarArco(d, c, 2));
+        assertEquals(7, enteros.distanciaMinima(a, d));
+
+        // al eliminar un vértice el último toma su número
+        int e = enteros.insertarVertice('e');
+        assertEquals(4, e);
+        assertTrue(enteros.insertarArco(e, a, 1));
+        assertTrue(enteros.eliminarVertice(c));
+        assertEquals(c, enteros.numero('e'));
+        assertEquals(-1, enteros.numero('c'));
+        assertTrue(enteros.existeArco(a, enteros.numero('e')));
+        assertEquals(1, enteros.grado(enteros.numero('e')));
+        assertEquals(-1, enteros.distanciaMinima(a, enteros.numero('d')));
+        // el original no cambia
+        assertTrue(grafo.existeArco('a', 'c'));
+    }
+
+    @Test
+    void jerarquiaContraccion() {
+        DigrafoEtiquetado<Character> grafo = new DigrafoEtiquetado<>();
+        grafo.insertarVertice('e');
+        grafo.insertarVertice('d');
+        grafo.insertarVertice('c');
+        grafo.insertarVertice('b');
+        grafo.insertarVertice('a');
+        grafo.insertarArco('a', 'd', 10);
+        grafo.insertarArco('a', 'b', 1);
+        grafo.insertarArco('b', 'c', 2);
+        grafo.insertarArco('c', 'd', 3);
+        grafo.insertarArco('d', 'a', 1);
+
+        JerarquiaContraccion<Character> jerarquia = new JerarquiaContraccion<>(grafo.congelar());
+        assertEquals(grafo.getVersion(), jerarquia.getVersion());
+        assertEquals(new ListaDinamica<>(new Character[]{'a', 'b', 'c', 'd'}), jerarquia.caminoMasCorto('a', 'd'));
+        assertEquals(6, jerarquia.distanciaMinima('a', 'd'));
+        assertEquals(new ListaDinamica<>(new Character[]{'b', 'c', 'd', 'a'}), jerarquia.caminoMasCorto('b', 'a'));
+        assertEquals(new ListaDinamica<>(new Character[]{'c'}), jerarquia.caminoMasCorto('c', 'c'));
+        assertTrue(jerarquia.caminoMasCorto('a', 'e').estaVacia());
+        assertEquals(-1, jerarquia.distanciaMinima('a', 'e'));
+        assertEquals(-1, jerarquia.distanciaMinima('a', 'z'));
+        grafo.insertarArco('a', 'e', 1);
+        assertNotEquals(grafo.getVersion(), jerarquia.getVersion());
+
+        // en una grilla las distancias coinciden con Dijkstra para todos los pares
+        GrafoEtiquetado<Integer> grilla = new GrafoEtiquetado<>();
+        for (int i = 0; i < 36; i++)
+            grilla.insertarVertice(i);
+        for (int i = 0; i < 36; i++) {
+            if (i % 6 < 5)
+                grilla.insertarArco(i, i + 1, 1 + i * 7 % 5);
+            if (i < 30)
+                grilla.insertarArco(i, i + 6, 1 + i * 3 % 4);
+        }
+        JerarquiaContraccion<Integer> jerarquiaGrilla = new JerarquiaContraccion<>(grilla.congelar());
+        for (int origen = 0; origen < 36; origen++) {
+            for (int destino = 0; destino < 36; destino++) {
+                int distancia = grilla.distanciaMinima(origen, destino);
+                Lista<Integer> camino = jerarquiaGrilla.caminoMasCorto(origen, destino);
+                int largo = 0;
+                for (int i = 1; i < camino.longitud(); i++) {
+                    assertTrue(grilla.existeArco(camino.recuperar(i), camino.recuperar(i + 1)));
+                    largo += grilla.distanciaMinima(camino.recuperar(i), camino.recuperar(i + 1));
+                }
+                assertEquals(distancia, jerarquiaGrilla.distanciaMinima(origen, destino));
+                assertEquals(distancia, largo);
+                assertEquals(origen, camino.recuperar(1));
+                assertEquals(destino, camino.recuperar(camino.longitud()));
+            }
+        }
+    }
+
+    @Test
+    void caminosParalelo() {
+        DigrafoEtiquetado<Integer> digrafo = new DigrafoEtiquetado<>();
+        DigrafoEtiquetado<Integer> grafo = new GrafoEtiquetado<>();
+        for (int i = 0; i < 7; i++) {
+            digrafo.insertarVertice(i);
+            grafo.insertarVertice(i);
+        }
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 7; j++) {
+                if (i != j && (i + j) % 3 != 0) {
+                    digrafo.insertarArco(i, j, 1 + (i * j) % 4);
+                    grafo.insertarArco(i, j, 1 + (i * j) % 4);
+                }
+            }
+        }
+
+        // mismos caminos, en el mismo orden, y el mismo camino más largo que la versión secuencial
+        assertEquals(digrafo.caminosPosibles(0, 6).toString(), digrafo.caminosPosiblesParalelo(0, 6).toString());
+        assertEquals(grafo.caminosPosibles(0, 6).toString(), grafo.caminosPosiblesParalelo(0, 6).toString());
+        assertEquals(digrafo.caminoMasLargo(0, 6), digrafo.caminoMasLargoParalelo(0, 6));
+        assertEquals(grafo.caminoMasLargo(0, 6), grafo.caminoMasLargoParalelo(0, 6));
+        assertEquals(grafo.caminoMasLargo(3, 3), grafo.caminoMasLargoParalelo(3, 3));
+
+        assertTrue(digrafo.caminosPosiblesParalelo(0, 9).estaVacia());
+        assertTrue(digrafo.caminoMasLargoParalelo(9, 0).estaVacia());
+    }
+
+    @Test
+    void obtenerVertice() {
+        DigrafoEtiquetado<String> grafo = new DigrafoEtiquetado<>();
+        String moscu = new String("MOSCU");
+        assertTrue(grafo.insertarVertice(moscu));
+        assertTrue(grafo.insertarVertice("KAZAN"));
+        assertTrue(grafo.insertarVertice("SOCHI"));
+        assertFalse(grafo.insertarVertice(new String("MOSCU")));
+        assertSame(moscu, grafo.obtenerVertice(new String("MOSCU")));
+        assertNull(grafo.obtenerVertice(null));
+        assertFalse(grafo.exiteVertice(null));
+
+        assertTrue(grafo.insertarArco("MOSCU", "KAZAN", 800));
+        assertTrue(grafo.eliminarVertice("MOSCU"));
+        assertFalse(grafo.exiteVertice("MOSCU"));
+        assertFalse(grafo.insertarArco("MOSCU", "KAZAN", 800));
+        assertTrue(grafo.insertarArco("SOCHI", "KAZAN", 1500));
+        assertTrue(grafo.existeArco("SOCHI", "KAZAN"));
+
+        grafo.vaciar();
+        assertNull(grafo.obtenerVertice("KAZAN"));
+        assertTrue(grafo.insertarVertice("KAZAN"));
+    }
+
     @Test
     void testEqualsNull() {
         assertFalse(equalsNull());
@@ -1,8 +1,11 @@
 package test.estructuras;
 
 import estructuras.grafo.GrafoEtiquetado;
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -55,4 +58,151 @@ public class GrafoEtiquetadoTest {
         System.out.println(grafo);
         assertFalse(grafo.esVacio());
     }
+
+    @Test
+    void eliminarEnVerticeConMuchosArcos() {
+        GrafoEtiquetado<Integer> grafo = new GrafoEtiquetado<>();
+        for (int i = 0; i <= 40; i++)
+            grafo.insertarVertice(i);
+        // el vértice 0 es un centro con arcos a todos los demás y usa el índice de adyacentes
+        for (int i = 1; i <= 40; i++)
+            assertTrue(grafo.insertarArco(0, i, i));
+        for (int i = 1; i < 40; i++)
+            assertTrue(grafo.insertarArco(i, i + 1, 1));
+        assertFalse(grafo.insertarArco(25, 0, 1));
+        assertTrue(grafo.existeArco(0, 33));
+        assertTrue(grafo.existeArco(33, 0));
+
+        for (int i = 1; i <= 40; i += 2)
+            assertTrue(grafo.eliminarArco(i, 0));
+        assertFalse(grafo.existeArco(0, 33));
+        assertFalse(grafo.eliminarArco(0, 33));
+        assertTrue(grafo.existeArco(34, 0));
+        assertEquals(new ListaDinamica<>(new Integer[]{0, 2, 3}), grafo.caminoMasCorto(0, 3));
+
+        assertTrue(grafo.eliminarVertice(2));
+        assertFalse(grafo.existeArco(0, 2));
+        assertFalse(grafo.existeArco(3, 2));
+        assertEquals(new ListaDinamica<>(new Integer[]{0, 4, 3}), grafo.caminoMasCorto(0, 3));
+
+        assertTrue(grafo.eliminarVertice(0));
+        for (int i = 3; i <= 40; i++)
+            assertFalse(grafo.existeArco(i, 0));
+        assertEquals(37, grafo.listarArcos().longitud() / 2);
+    }
+
+    @Test
+    void componentes() {
+        GrafoEtiquetado<Integer> grafo = new GrafoEtiquetado<>();
+        for (int i = 6; i >= 1; i--)
+            grafo.insertarVertice(i);
+        grafo.insertarArco(1, 2, 1);
+        grafo.insertarArco(3, 4, 1);
+        grafo.insertarArco(4, 5, 1);
+
+        assertTrue(grafo.existeCamino(2, 1));
+        assertTrue(grafo.existeCamino(3, 5));
+        assertTrue(grafo.existeCamino(6, 6));
+        assertFalse(grafo.existeCamino(1, 3));
+        assertFalse(grafo.existeCamino(1, 9));
+        Lista<Lista<Integer>> componentes = grafo.componentes();
+        assertEquals(3, componentes.longitud());
+        assertEquals(new ListaDinamica<>(new Integer[]{1, 2}), componentes.recuperar(1));
+        assertEquals(new ListaDinamica<>(new Integer[]{3, 4, 5}), componentes.recuperar(2));
+        assertEquals(new ListaDinamica<>(new Integer[]{6}), componentes.recuperar(3));
+
+        // al insertar se actualiza el indice
+        assertTrue(grafo.insertarVertice(7));
+        assertTrue(grafo.insertarArco(7, 6, 1));
+        assertTrue(grafo.insertarArco(2, 3, 1));
+        assertTrue(grafo.existeCamino(1, 5));
+        assertTrue(grafo.existeCamino(7, 6));
+        assertEquals(2, grafo.componentes().longitud());
+
+        // al eliminar se vuelve a armar
+        assertTrue(grafo.eliminarArco(3, 2));
+        assertFalse(grafo.existeCamino(1, 5));
+        assertTrue(grafo.eliminarVertice(4));
+        assertFalse(grafo.existeCamino(3, 5));
+        assertEquals(4, grafo.componentes().longitud());
+
+        grafo.vaciar();
+        assertTrue(grafo.componentes().estaVacia());
+        grafo.insertarVertice(1);
+        assertTrue(grafo.existeCamino(1, 1));
+    }
+
+    @Test
+    void caminoMasCortoAEstrella() {
+        GrafoEtiquetado<Integer> grafo = new GrafoEtiquetado<>();
+        int n = 20;
+        for (int i = 0; i < n * n; i++)
+            grafo.insertarVertice(i);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (j + 1 < n)
+                    grafo.insertarArco(i * n + j, i * n + j + 1, 1 + (i * 7 + j * 3) % 5);
+                if (i + 1 < n)
+                    grafo.insertarArco(i * n + j, (i + 1) * n + j, 1 + (i * 3 + j * 5) % 5);
+            }
+        }
+
+        grafo.reiniciarVerticesFijados();
+        Lista<Integer> conDijkstra = grafo.caminoMasCorto(21, 378);
+        long fijadosDijkstra = grafo.getVerticesFijados();
+
+        grafo.precalcularPuntosReferencia(4);
+        assertEquals(4, grafo.cantidadPuntosReferencia());
+        grafo.reiniciarVerticesFijados();
+        assertEquals(conDijkstra, grafo.caminoMasCorto(21, 378));
+        assertTrue(grafo.getVerticesFijados() < fijadosDijkstra);
+        assertEquals(grafo.caminoConMenosVertices(0, 0), grafo.caminoMasCorto(0, 0));
+
+        // al cambiar el grafo se descartan las referencias
+        grafo.insertarArco(21, 378, 1);
+        assertEquals(0, grafo.cantidadPuntosReferencia());
+        assertEquals(2, grafo.caminoMasCorto(21, 378).longitud());
+    }
+
+    @Test
+    void caminoMasLargo() {
+        // con pocos vértices usa programación dinámica y con muchos la búsqueda con poda, los dos deben devolver el
+        // primer camino de mayor distancia del recorrido de todos los caminos
+        for (int n : new int[]{8, 22}) {
+            GrafoEtiquetado<Integer> grafo = new GrafoEtiquetado<>();
+            for (int i = 0; i < n; i++)
+                grafo.insertarVertice(i);
+            for (int i = 0; i < n; i++) {
+                grafo.insertarArco(i, (i + 1) % n, peso(i, (i + 1) % n));
+                if (i % 3 == 0)
+                    grafo.insertarArco(i, (i + n / 2) % n, peso(i, (i + n / 2) % n));
+            }
+
+            Lista<Lista<Integer>> caminos = grafo.caminosPosibles(0, n / 2 + 1);
+            Lista<Integer> esperado = null;
+            int mayor = Integer.MIN_VALUE;
+            for (int i = 1; i <= caminos.longitud(); i++) {
+                Lista<Integer> camino = caminos.recuperar(i);
+                int dist = 0;
+                for (int j = 1; j < camino.longitud(); j++)
+                    dist += peso(camino.recuperar(j), camino.recuperar(j + 1));
+                if (dist > mayor) {
+                    mayor = dist;
+                    esperado = camino;
+                }
+            }
+            assertEquals(esperado, grafo.caminoMasLargo(0, n / 2 + 1));
+            assertEquals(new ListaDinamica<>(new Integer[]{3}), grafo.caminoMasLargo(3, 3));
+        }
+
+        GrafoEtiquetado<Integer> grafo = new GrafoEtiquetado<>();
+        grafo.insertarVertice(1);
+        grafo.insertarVertice(2);
+        assertTrue(grafo.caminoMasLargo(1, 2).estaVacia());
+        assertTrue(grafo.caminoMasLargo(1, 3).estaVacia());
+    }
+
+    private static int peso(int i, int j) {
+        return 1 + (Math.min(i, j) * 7 + Math.max(i, j) * 3) % 10;
+    }
 }
@@ -0,0 +1,162 @@
+package test.estructuras;
+
+import estructuras.lineales.Lista;
+import estructuras.lineales.ListaDinamica;
+import estructuras.propositoEspecifico.TablaBusqueda;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TablaBusquedaTest {
+
+    @Test
+    void insertarYEliminar() {
+        TablaBusqueda<String, Integer> tabla = new TablaBusqueda<>();
+        assertTrue(tabla.esVacio());
+        assertTrue(tabla.insertar("c", 3));
+        assertTrue(tabla.insertar("b", 2));
+        assertTrue(tabla.insertar("a", 1));
+        assertFalse(tabla.insertar("b", 5));
+        assertTrue(tabla.insertar("d", 4));
+        assertEquals(2, tabla.obtenerDato("b"));
+        assertNull(tabla.obtenerDato("z"));
+        assertNull(tabla.obtenerDato(null));
+        assertTrue(tabla.existeClave("d"));
+        assertFalse(tabla.existeClave("e"));
+        assertEquals(new ListaDinamica<>(new String[]{"a", "b", "c", "d"}), tabla.listarClaves());
+
+        assertTrue(tabla.eliminar("b")); // raíz con dos hijos
+        assertFalse(tabla.eliminar("b"));
+        assertFalse(tabla.eliminar(null));
+        assertTrue(tabla.eliminar("a"));
+        assertEquals(new ListaDinamica<>(new Integer[]{3, 4}), tabla.listarDatosOrdenados());
+        assertTrue(tabla.eliminar("c"));
+        assertTrue(tabla.eliminar("d"));
+        assertTrue(tabla.esVacio());
+    }
+
+    @Test
+    void estadisticasDeOrden() {
+        TablaBusqueda<Integer, String> tabla = new TablaBusqueda<>();
+        for (int i = 10; i >= 1; i--)
+            tabla.insertar(i * 2, "d" + i * 2); // claves pares del 2 al 20
+        assertTrue(tabla.eliminar(8));
+
+        assertEquals(9, tabla.tamanio());
+        assertEquals(0, tabla.rango(1));
+        assertEquals(3, tabla.rango(10));
+        assertEquals(3, tabla.rango(9));
+        assertEquals(9, tabla.rango(25));
+        assertEquals(2, tabla.seleccionar(1));
+        assertEquals(10, tabla.seleccionar(4));
+        assertEquals(20, tabla.seleccionar(9));
+        assertNull(tabla.seleccionar(0));
+        assertNull(tabla.seleccionar(10));
+
+        assertEquals(3, tabla.contarRango(5, 13));
+        assertEquals(0, tabla.contarRango(13, 5));
+        assertEquals(9, tabla.contarRango(0, 100));
+        assertEquals(tabla.listarRango(5, 13), tabla.listarRango(5, 13, 0, 100));
+        assertEquals(new ListaDinamica<>(new String[]{"d10", "d12"}), tabla.listarRango(5, 13, 1, 2));
+        assertEquals(new ListaDinamica<>(new String[]{"d12"}), tabla.listarRango(5, 13, 2, 2));
+        assertTrue(tabla.listarRango(5, 13, 3, 2).estaVacia());
+        assertTrue(tabla.listarRango(5, 13, 0, 0).estaVacia());
+    }
+
+    @Test
+    void iteradorDatos() {
+        TablaBusqueda<Integer, String> tabla = new TablaBusqueda<>();
+        assertFalse(tabla.iteradorDatos().hasNext());
+        for (int i = 10; i >= 1; i--)
+            tabla.insertar(i * 2, "d" + i * 2);
+
+        Iterator<String> iterador = tabla.iteradorDatos();
+        Lista<String> recorridos = new ListaDinamica<>();
+        while (iterador.hasNext())
+            recorridos.insertar(iterador.next());
+        assertEquals(tabla.listarDatosOrdenados(), recorridos);
+        assertThrows(NoSuchElementException.class, iterador::next);
+
+        iterador = tabla.iteradorDatos(5, 12);
+        assertEquals("d6", iterador.next());
+        assertEquals("d8", iterador.next());
+        assertEquals("d10", iterador.next());
+        assertEquals("d12", iterador.next());
+        assertFalse(iterador.hasNext());
+        assertEquals("d20", tabla.iteradorDatos(20, null).next());
+        assertFalse(tabla.iteradorDatos(21, null).hasNext());
+
+        assertEquals(10, tabla.spliteratorDatos().getExactSizeIfKnown());
+        assertEquals(Arrays.asList("d2", "d4", "d6"),
+                StreamSupport.stream(tabla.spliteratorDatos(), false).limit(3).collect(Collectors.toList()));
+    }
+
+    @Test
+    void construirDesdeOrdenados() {
+        TablaBusqueda<Integer, String> tabla = new TablaBusqueda<>();
+        assertFalse(tabla.construirDesdeOrdenados(new Integer[]{1, 3, 2}, new String[]{"d1", "d3", "d2"}));
+        assertFalse(tabla.construirDesdeOrdenados(new Integer[]{1, 1}, new String[]{"d1", "d1"}));
+        assertFalse(tabla.construirDesdeOrdenados(new Integer[]{1, 2}, new String[]{"d1"}));
+        assertTrue(tabla.esVacio());
+
+        Integer[] claves = new Integer[100];
+        String[] datos = new String[100];
+        for (int i = 0; i < 100; i++) {
+            claves[i] = i * 2;
+            datos[i] = "d" + i * 2;
+        }
+        assertTrue(tabla.construirDesdeOrdenados(claves, datos));
+        assertFalse(tabla.construirDesdeOrdenados(claves, datos));
+        assertEquals(100, tabla.tamanio());
+        assertEquals(37, tabla.rango(74));
+        assertEquals(74, tabla.seleccionar(38));
+        assertEquals("d98", tabla.obtenerDato(98));
+        assertTrue(tabla.toString().startsWith("TablaBusqueda{ raiz=98 -> d98")); // clave del medio
+
+        // después se sigue usando como cualquier tabla
+        assertTrue(tabla.insertar(99, "d99"));
+        assertFalse(tabla.insertar(98, "d98"));
+        assertTrue(tabla.eliminar(0));
+        assertEquals(100, tabla.listarClaves().longitud());
+        assertEquals(2, tabla.listarClaves().recuperar(1));
+    }
+
+    @Test
+    void operacionesAlAzar() {
+        // después de cualquier secuencia de altas y bajas las claves y los datos siguen siendo los insertados
+        Random random = new Random(3);
+        for (int prueba = 0; prueba < 200; prueba++) {
+            TablaBusqueda<Integer, String> tabla = new TablaBusqueda<>();
+            TreeMap<Integer, String> esperado = new TreeMap<>();
+            for (int i = 0; i < 300; i++) {
+                int clave = random.nextInt(100);
+                if (random.nextInt(3) < 2) {
+                    assertEquals(!esperado.containsKey(clave), tabla.insertar(clave, "d" + clave));
+                    esperado.putIfAbsent(clave, "d" + clave);
+                } else {
+                    assertEquals(esperado.remove(clave) != null, tabla.eliminar(clave));
+                }
+                assertEquals(esperado.get(i % 100), tabla.obtenerDato(i % 100));
+            }
+            Lista<Integer> claves = tabla.listarClaves();
+            assertEquals(esperado.size(), claves.longitud());
+            assertEquals(esperado.size(), tabla.tamanio());
+            assertEquals(esperado.headMap(50).size(), tabla.rango(50));
+            int pos = 1;
+            for (int clave : esperado.keySet())
+                assertEquals(clave, claves.recuperar(pos++));
+        }
+    }
+}
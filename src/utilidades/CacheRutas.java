@@ -0,0 +1,87 @@
+package utilidades;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché acotado de respuestas de consultas de caminos. Cada respuesta se guarda con la versión del mapa sobre la que
+ * se calculó y solo se devuelve si se consulta con esa misma versión, así nunca se sirve un camino de un mapa que ya
+ * cambió. Cuando se llena descarta la respuesta usada hace más tiempo.
+ * Los métodos se sincronizan sobre el caché y no sobre DataHelper, así que no hace esperar a las altas y bajas.
+ *
+ * @param <V> tipo de las respuestas
+ */
+final class CacheRutas<V> {
+    private final LinkedHashMap<String, Entrada<V>> entradas;
+    private long aciertos, fallos, desalojos;
+
+    /**
+     * @param capacidad cantidad máxima de respuestas guardadas
+     */
+    CacheRutas(int capacidad) {
+        entradas = new LinkedHashMap<String, Entrada<V>>(16, 0.75f, true) { // ordenado por último uso
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada<V>> mayor) {
+                boolean desalojar = size() > capacidad;
+                if (desalojar)
+                    desalojos++;
+                return desalojar;
+            }
+        };
+    }
+
+    /**
+     * @param clave   consulta
+     * @param version versión del mapa sobre la que se consulta
+     * @return la respuesta guardada para la consulta y la versión, null si no hay
+     */
+    synchronized V obtener(String clave, long version) {
+        V valor = null;
+        Entrada<V> entrada = entradas.get(clave);
+
+        if (entrada != null && entrada.version == version) {
+            valor = entrada.valor;
+            aciertos++;
+        } else {
+            if (entrada != null && entrada.version < version) // ya no se va a poder usar
+                entradas.remove(clave);
+            fallos++;
+        }
+        return valor;
+    }
+
+    /**
+     * Guarda la respuesta, salvo que ya haya una calculada sobre una versión más nueva del mapa.
+     */
+    synchronized void guardar(String clave, long version, V valor) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada == null || entrada.version <= version)
+            entradas.put(clave, new Entrada<>(version, valor));
+    }
+
+    synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    synchronized long getFallos() {
+        return fallos;
+    }
+
+    synchronized long getDesalojos() {
+        return desalojos;
+    }
+
+    synchronized int cantidad() {
+        return entradas.size();
+    }
+
+    private static final class Entrada<V> {
+        private final long version;
+        private final V valor;
+
+        private Entrada(long version, V valor) {
+            this.version = version;
+            this.valor = valor;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package utilidades;
 
 import estructuras.grafo.Arco;
+import estructuras.grafo.GrafoCompacto;
 import estructuras.grafo.GrafoEtiquetado;
+import estructuras.grafo.JerarquiaContraccion;
 import estructuras.lineales.Lista;
 import estructuras.lineales.ListaDinamica;
 import estructuras.propositoEspecifico.ColaPrioridad;
@@ -12,20 +14,44 @@ import modelos.Equipo;
 import modelos.Partido;
 import modelos.Ronda;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Esta clase funciona como una base de datos.
  */
 public class DataHelper implements Serializable {
+    // cantidad de caminos que guarda el caché de consultas
+    private static final int CAPACIDAD_CACHE_RUTAS = 256;
+    // hasta esta cantidad de ciudades se precalculan las distancias entre todos los pares, ocupan 8 bytes por par
+    private static final int MAX_CIUDADES_TABLA_DISTANCIAS = 1024;
+
     // mapa de las ciudades
     private final GrafoEtiquetado<Ciudad> ciudades;
     // key pais del equipo
     private final TablaBusqueda<String, Equipo> equipos;
     // key nombres de los equipos donde eq1 < eq2
     private final HashMap<String, Partido> partidos;
+    // copia inmutable del mapa que usan las consultas de caminos sin tomar el monitor, se reemplaza entera después de
+    // cada cambio o grupo de cambios y la anterior se libera cuando ninguna consulta la usa
+    private transient volatile GrafoCompacto<Ciudad> instantanea;
+    private transient int cambiosAgrupados;
+    // caminos ya consultados, cada uno con la versión de la copia del mapa sobre la que se calculó
+    private transient volatile CacheRutas<Ciudad[]> cacheRutas;
+    // índice para consultar caminos mínimos sin bloquear, se rearma en segundo plano cuando se publica una copia
+    // nueva del mapa
+    private transient volatile JerarquiaContraccion<Ciudad> jerarquia;
+    private transient ExecutorService reconstructor;
+    private transient boolean reconstruccionPendiente;
 
     private static DataHelper instance;
 
@@ -33,6 +59,15 @@ public class DataHelper implements Serializable {
         ciudades = new GrafoEtiquetado<>();
         equipos = new TablaBusqueda<>();
         partidos = new HashMap<>();
+        instantanea = ciudades.congelar();
+    }
+
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        synchronized (this) {
+            instantanea = ciudades.congelar();
+            programarReconstruccion();
+        }
     }
 
     public static DataHelper getInstance() {
@@ -55,12 +90,18 @@ public class DataHelper implements Serializable {
 
     public synchronized boolean altaCiudad(String nombre, double superficie, int cantHabitantes, boolean sede) {
         Ciudad c = new Ciudad(nombre, superficie, cantHabitantes, sede);
-        return ciudades.insertarVertice(c);
+        boolean exito = ciudades.insertarVertice(c);
+        if (exito)
+            mapaModificado();
+        return exito;
     }
 
     public synchronized boolean eliminarCiudad(String nombre) {
         Ciudad c = new Ciudad(nombre);
-        return ciudades.eliminarVertice(c);
+        boolean exito = ciudades.eliminarVertice(c);
+        if (exito)
+            mapaModificado();
+        return exito;
     }
 
     public synchronized boolean modificarCiudad(String nombre, double superficie, int cantHabitantes, boolean sede) {
@@ -105,14 +146,48 @@ public class DataHelper implements Serializable {
                                            int puntos,
                                            int golesAFavor,
                                            int golesEnContra) throws NumberFormatException {
-        boolean exito;
-        if (grupo >= 'A' && grupo <= 'H') {
-            Equipo equipo = new Equipo(pais, directorTecnico, grupo, puntos, golesAFavor, golesEnContra);
-            exito = equipos.insertar(pais, equipo);
-        } else {
+        return equipos.insertar(pais, crearEquipo(pais, directorTecnico, grupo, puntos, golesAFavor, golesEnContra));
+    }
+
+    /**
+     * Da de alta de una sola vez los equipos, que deben estar ordenados por país y sin repetir. Arma la tabla en O(n)
+     * sin rebalancear en cada alta, así que solo se puede usar si todavía no hay equipos.
+     *
+     * @return verdadero si se dieron de alta, falso si ya había equipos o no están ordenados, en ese caso no se da de
+     * alta ninguno
+     */
+    public synchronized boolean altaEquiposOrdenados(Equipo[] ordenados) {
+        String[] paises = new String[ordenados.length];
+        for (int i = 0; i < ordenados.length; i++)
+            paises[i] = ordenados[i].getPais();
+        return equipos.construirDesdeOrdenados(paises, ordenados);
+    }
+
+    static Equipo crearEquipo(String pais,
+                              String directorTecnico,
+                              String grupo,
+                              String puntos,
+                              String golesAFavor,
+                              String golesEnContra) throws NumberFormatException {
+        return crearEquipo(
+                pais,
+                directorTecnico,
+                grupo.charAt(0),
+                Integer.parseInt(puntos),
+                Integer.parseInt(golesAFavor),
+                Integer.parseInt(golesEnContra)
+        );
+    }
+
+    private static Equipo crearEquipo(String pais,
+                                      String directorTecnico,
+                                      char grupo,
+                                      int puntos,
+                                      int golesAFavor,
+                                      int golesEnContra) throws NumberFormatException {
+        if (grupo < 'A' || grupo > 'H')
             throw new NumberFormatException("variable grupo no valida: " + grupo);
-        }
-        return exito;
+        return new Equipo(pais, directorTecnico, grupo, puntos, golesAFavor, golesEnContra);
     }
 
     public synchronized boolean bajaEquipo(String pais) {
@@ -147,7 +222,22 @@ public class DataHelper implements Serializable {
     }
 
     public synchronized boolean insertarRuta(String origen, String destino, int distancia) {
-        return ciudades.insertarArco(new Ciudad(origen), new Ciudad(destino), distancia);
+        boolean exito = ciudades.insertarArco(new Ciudad(origen), new Ciudad(destino), distancia);
+        if (exito)
+            mapaModificado();
+        return exito;
+    }
+
+    /**
+     * Cambia la distancia de una ruta existente en ambos sentidos, sin dar de baja la ruta y volver a cargarla.
+     *
+     * @return verdadero si la ruta existe y falso en caso contrario
+     */
+    public synchronized boolean modificarRuta(String origen, String destino, int distancia) {
+        boolean exito = ciudades.modificarEtiqueta(new Ciudad(origen), new Ciudad(destino), distancia);
+        if (exito)
+            mapaModificado();
+        return exito;
     }
 
     public synchronized boolean altaDePartido(String equipoA,
@@ -190,10 +280,10 @@ public class DataHelper implements Serializable {
 
     public synchronized Lista<Equipo> listarEquiposConDifGolNeg() {
         Lista<Equipo> lista = new ListaDinamica<>();
-        Lista<Equipo> todosLosEquipos = equipos.listarDatosOrdenados();
+        Iterator<Equipo> todosLosEquipos = equipos.iteradorDatos();
 
-        for (int i = 1; i <= todosLosEquipos.longitud(); i++) {
-            Equipo e = todosLosEquipos.recuperar(i);
+        while (todosLosEquipos.hasNext()) {
+            Equipo e = todosLosEquipos.next();
             if (e.diferenciaGoles() < 0)
                 lista.insertar(e);
         }
@@ -205,11 +295,28 @@ public class DataHelper implements Serializable {
         return equipos.listarRango(desde, hasta);
     }
 
+    /**
+     * Igual que listarEquiposPorRango(desde, hasta) pero devuelve una página, sin recorrer los equipos anteriores.
+     *
+     * @param desplazamiento cantidad de equipos del rango que se saltean
+     * @param limite         cantidad máxima de equipos a devolver
+     */
+    public synchronized Lista<Equipo> listarEquiposPorRango(String desde, String hasta, int desplazamiento, int limite) {
+        return equipos.listarRango(desde, hasta, desplazamiento, limite);
+    }
+
+    /**
+     * @return la cantidad de equipos cuyo país está entre desde y hasta, inclusive
+     */
+    public synchronized int contarEquiposPorRango(String desde, String hasta) {
+        return equipos.contarRango(desde, hasta);
+    }
+
     public synchronized ColaPrioridad<Equipo> obtenerEquiposPorPuntaje() {
-        Lista<Equipo> listaEquipos = equipos.listarDatosOrdenados();
+        Iterator<Equipo> listaEquipos = equipos.iteradorDatos();
         ColaPrioridad<Equipo> colaEquiposPuntaje = new ColaPrioridadDinamica<>();
-        for (int i = 1; i <= listaEquipos.longitud(); i++) {
-            Equipo equipo = listaEquipos.recuperar(i);
+        while (listaEquipos.hasNext()) {
+            Equipo equipo = listaEquipos.next();
             colaEquiposPuntaje.insertar(equipo, equipo.getPuntos());
         }
         return colaEquiposPuntaje;
@@ -226,24 +333,341 @@ public class DataHelper implements Serializable {
         return sb.toString();
     }
 
-    public synchronized Lista<Ciudad> obtenerCaminoConMenorDistancia(String ciudadOrigen, String ciudadDestino) {
-        return ciudades.caminoMasCorto(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino));
+    /**
+     * Las consultas de distancias se repiten mucho entre las mismas ciudades, así que el camino se guarda en el caché
+     * de rutas y las siguientes consultas entre las mismas ciudades lo reutilizan hasta el próximo cambio.
+     */
+    public Lista<Ciudad> obtenerCaminoConMenorDistancia(String ciudadOrigen, String ciudadDestino) {
+        return caminoGuardado("menorDistancia;" + ciudadOrigen + ";" + ciudadDestino,
+                mapa -> mapa.caminoMasCorto(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino)));
+    }
+
+    /**
+     * Busca el camino en el caché de consultas y, si no está o se calculó sobre otra versión del mapa, lo calcula
+     * sobre la copia publicada del mapa y lo guarda.
+     *
+     * @param clave    tipo de consulta y ciudades separadas por ';', que no puede aparecer en los nombres
+     * @param consulta calcula el camino sobre la copia del mapa
+     * @return una lista nueva con el camino
+     */
+    private Lista<Ciudad> caminoGuardado(String clave, Function<GrafoCompacto<Ciudad>, Lista<Ciudad>> consulta) {
+        GrafoCompacto<Ciudad> mapa = instantanea();
+        CacheRutas<Ciudad[]> cache = cacheRutas();
+        Ciudad[] camino = cache.obtener(clave, mapa.getVersion());
+
+        if (camino == null) {
+            Lista<Ciudad> calculado = consulta.apply(mapa);
+            camino = new Ciudad[calculado.longitud()];
+            for (int i = 0; i < camino.length; i++)
+                camino[i] = calculado.recuperar(i + 1);
+            cache.guardar(clave, mapa.getVersion(), camino);
+        }
+        return new ListaDinamica<>(camino);
+    }
+
+    private CacheRutas<Ciudad[]> cacheRutas() {
+        CacheRutas<Ciudad[]> cache = cacheRutas;
+        if (cache == null) {
+            synchronized (this) {
+                if (cacheRutas == null)
+                    cacheRutas = new CacheRutas<>(CAPACIDAD_CACHE_RUTAS);
+                cache = cacheRutas;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @return cantidad de consultas de caminos respondidas con el caché
+     */
+    public long obtenerAciertosCacheRutas() {
+        return cacheRutas().getAciertos();
+    }
+
+    /**
+     * @return cantidad de consultas de caminos que no estaban en el caché o estaban calculadas sobre un mapa anterior
+     */
+    public long obtenerFallosCacheRutas() {
+        return cacheRutas().getFallos();
+    }
+
+    /**
+     * @return cantidad de caminos descartados del caché por falta de lugar
+     */
+    public long obtenerDesalojosCacheRutas() {
+        return cacheRutas().getDesalojos();
+    }
+
+    /**
+     * Es O(1) una vez que se precalcularon las distancias de la copia publicada del mapa, ver reconstruirJerarquia.
+     *
+     * @return la distancia en km del camino más corto entre las ciudades, -1 si no hay camino
+     */
+    public int obtenerDistanciaMinima(String ciudadOrigen, String ciudadDestino) {
+        return instantanea().distanciaMinima(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino));
     }
 
-    public synchronized Lista<Ciudad> obtenerCaminoConMenosCiudades(String ciudadOrigen, String ciudadDestino) {
-        return ciudades.caminoConMenosVertices(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino));
+    /**
+     * Igual que obtenerCaminoConMenorDistancia pero con la jerarquía de contracción. Si hay más de un camino mínimo
+     * puede devolver otro con la misma distancia. Mientras la jerarquía no corresponda a la última copia publicada
+     * del mapa, porque todavía se está rearmando, usa obtenerCaminoConMenorDistancia.
+     */
+    public Lista<Ciudad> obtenerCaminoConMenorDistanciaIndexado(String ciudadOrigen, String ciudadDestino) {
+        GrafoCompacto<Ciudad> mapa = instantanea();
+        JerarquiaContraccion<Ciudad> indice = jerarquia;
+
+        return indice != null && indice.getVersion() == mapa.getVersion()
+                ? indice.caminoMasCorto(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino))
+                : mapa.caminoMasCorto(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino));
     }
 
-    public synchronized Lista<Lista<Ciudad>> obtenerCaminoPosibles(String ciudadOrigen, String ciudadDestino) {
-        return ciudades.caminosPosibles(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino));
+    /**
+     * Agrupa los cambios en el mapa hasta terminarCambios, así las consultas siguen usando la copia anterior y la
+     * nueva se publica una sola vez al final, por ejemplo al importar un archivo. Se pueden anidar.
+     */
+    public synchronized void iniciarCambios() {
+        cambiosAgrupados++;
     }
 
-    public synchronized Lista<Ciudad> obtenerCaminoMasCortoEntreCiudad(String ciudadOrigen,
-                                                                       String ciudadDestino1,
-                                                                       String ciudadDestino2) {
-        return ciudades.caminoMasCorto(new Ciudad(ciudadOrigen),
-                new Ciudad(ciudadDestino1),
-                new Ciudad(ciudadDestino2));
+    /**
+     * Termina un grupo de cambios empezado con iniciarCambios y, si no quedan grupos abiertos, publica la copia del
+     * mapa con todos los cambios.
+     */
+    public synchronized void terminarCambios() {
+        if (cambiosAgrupados > 0 && --cambiosAgrupados == 0)
+            mapaModificado();
+    }
+
+    /**
+     * Publica la copia del mapa con el último cambio y encarga rearmar la jerarquía, salvo que haya un grupo de
+     * cambios abierto. Armar la copia es O(V + E) y lo paga quien modifica, con el monitor tomado, así que varios
+     * cambios seguidos conviene agruparlos con iniciarCambios y terminarCambios.
+     */
+    private void mapaModificado() {
+        if (cambiosAgrupados == 0) {
+            instantanea = ciudades.congelar();
+            programarReconstruccion();
+        }
+    }
+
+    /**
+     * Devuelve la última copia publicada del mapa. Las consultas de caminos trabajan sobre ella sin tomar el monitor,
+     * así no esperan a las altas, bajas y modificaciones ni las hacen esperar. Mientras hay un grupo de cambios
+     * abierto se sigue usando la anterior.
+     */
+    private GrafoCompacto<Ciudad> instantanea() {
+        return instantanea;
+    }
+
+    /**
+     * Encarga rearmar la jerarquía si no hay un rearmado pendiente, así varios cambios seguidos se juntan en uno.
+     * Se llama con el monitor tomado.
+     */
+    private void programarReconstruccion() {
+        if (reconstructor == null) {
+            reconstructor = Executors.newSingleThreadExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "jerarquia-ciudades");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        if (!reconstruccionPendiente) {
+            reconstruccionPendiente = true;
+            reconstructor.execute(this::reconstruirJerarquia);
+        }
+    }
+
+    /**
+     * Arma la jerarquía a partir de la última copia publicada del mapa sin tener el monitor, así las demás operaciones
+     * siguen mientras tanto. Como el pedido deja de estar pendiente al empezar, una copia publicada mientras se arma
+     * programa otro rearmado.
+     * Si el mapa es chico y la copia sigue siendo la publicada, después precalcula en ella las distancias entre todos
+     * los pares, así las consultas de distancias y caminos mínimos sobre esa copia no buscan. La tabla queda con la
+     * copia y se descarta con ella cuando se publica otra.
+     */
+    private void reconstruirJerarquia() {
+        synchronized (this) {
+            reconstruccionPendiente = false;
+        }
+        GrafoCompacto<Ciudad> mapa = instantanea();
+        JerarquiaContraccion<Ciudad> nueva = new JerarquiaContraccion<>(mapa);
+        synchronized (this) {
+            if (jerarquia == null || jerarquia.getVersion() < nueva.getVersion())
+                jerarquia = nueva;
+        }
+        if (mapa == instantanea() && mapa.cantidadVertices() <= MAX_CIUDADES_TABLA_DISTANCIAS)
+            mapa.precalcularDistancias();
+    }
+
+    public Lista<Ciudad> obtenerCaminoConMenosCiudades(String ciudadOrigen, String ciudadDestino) {
+        return caminoGuardado("menosCiudades;" + ciudadOrigen + ";" + ciudadDestino,
+                mapa -> mapa.caminoConMenosVertices(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino)));
+    }
+
+    public Lista<Lista<Ciudad>> obtenerCaminoPosibles(String ciudadOrigen, String ciudadDestino) {
+        return instantanea().caminosPosibles(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino));
+    }
+
+    /**
+     * Le envía al consumidor cada camino posible entre las ciudades a medida que se encuentra, sin armar la lista
+     * completa de caminos. El consumidor puede tardar lo que necesite, no bloquea las demás operaciones.
+     */
+    public void recorrerCaminosPosibles(String ciudadOrigen,
+                                        String ciudadDestino,
+                                        Consumer<Lista<Ciudad>> consumidor) {
+        instantanea().forEachCamino(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino), consumidor);
+    }
+
+    /**
+     * Devuelve los k caminos de menor distancia entre las ciudades, de menor a mayor distancia. Se calculan sobre la
+     * copia publicada del mapa, sin bloquear las altas y bajas.
+     */
+    public Lista<Lista<Ciudad>> obtenerCaminosMasCortos(String ciudadOrigen, String ciudadDestino, int k) {
+        return instantanea().caminosMasCortos(new Ciudad(ciudadOrigen), new Ciudad(ciudadDestino), k);
+    }
+
+    public Lista<Ciudad> obtenerCaminoMasCortoEntreCiudad(String ciudadOrigen,
+                                                          String ciudadDestino1,
+                                                          String ciudadDestino2) {
+        return caminoGuardado("pasandoPor;" + ciudadOrigen + ";" + ciudadDestino1 + ";" + ciudadDestino2,
+                mapa -> mapa.caminoMasCorto(new Ciudad(ciudadOrigen),
+                        new Ciudad(ciudadDestino1),
+                        new Ciudad(ciudadDestino2)));
+    }
+
+    /**
+     * Devuelve el camino más corto desde la ciudad de origen hasta la de destino pasando, en orden, por las ciudades
+     * intermedias.
+     */
+    public Lista<Ciudad> obtenerCaminoMasCortoPasandoPor(String ciudadOrigen,
+                                                         Lista<String> ciudadesIntermedias,
+                                                         String ciudadDestino) {
+        return instantanea().caminoMasCortoPasandoPor(new Ciudad(ciudadOrigen),
+                aCiudades(ciudadesIntermedias),
+                new Ciudad(ciudadDestino));
+    }
+
+    /**
+     * Devuelve el viaje de menor distancia que sigue al equipo por las sedes de sus partidos, en el orden de las
+     * rondas.
+     *
+     * @return lista con el viaje, vacía si el equipo no existe, no jugó partidos o no hay camino entre dos sedes
+     */
+    public Lista<Ciudad> obtenerItinerario(String pais) {
+        Lista<Ciudad> itinerario = new ListaDinamica<>();
+        Lista<Ciudad> sedes = null;
+        GrafoCompacto<Ciudad> mapa;
+
+        synchronized (this) {
+            mapa = instantanea();
+            Equipo equipo = equipos.obtenerDato(pais);
+            if (equipo != null)
+                sedes = obtenerSedes(equipo);
+        }
+        if (sedes != null && !sedes.estaVacia())
+            itinerario = mapa.caminoMasCortoPasandoPor(sedes.recuperar(1),
+                    sedesIntermedias(sedes),
+                    sedes.recuperar(sedes.longitud()));
+        return itinerario;
+    }
+
+    /**
+     * Itinerarios de todos los equipos, ver obtenerItinerarios(Lista).
+     */
+    public HashMap<String, Lista<Ciudad>> obtenerItinerarios() {
+        Lista<String> paises = new ListaDinamica<>();
+        synchronized (this) {
+            Iterator<Equipo> todos = equipos.iteradorDatos();
+            while (todos.hasNext())
+                paises.insertar(todos.next().getPais());
+        }
+        return obtenerItinerarios(paises);
+    }
+
+    /**
+     * Igual que obtenerItinerario para varios equipos a la vez. Los itinerarios se calculan en paralelo sobre la
+     * copia publicada del mapa, sin bloquear las demás operaciones. La copia guarda las distancias desde las últimas
+     * ciudades de partida usadas, así cada sede calcula sus distancias una sola vez aunque la compartan varios
+     * equipos.
+     *
+     * @param paises equipos a consultar, los que no existen no aparecen en el resultado
+     * @return itinerario de cada equipo por país
+     */
+    public HashMap<String, Lista<Ciudad>> obtenerItinerarios(Lista<String> paises) {
+        HashMap<String, Lista<Ciudad>> sedesPorPais = new HashMap<>();
+        ConcurrentHashMap<String, Lista<Ciudad>> itinerarios = new ConcurrentHashMap<>();
+        GrafoCompacto<Ciudad> copia;
+
+        synchronized (this) {
+            copia = instantanea();
+            for (int i = 1; i <= paises.longitud(); i++) {
+                Equipo equipo = equipos.obtenerDato(paises.recuperar(i));
+                if (equipo != null)
+                    sedesPorPais.put(equipo.getPais(), obtenerSedes(equipo));
+            }
+        }
+        sedesPorPais.entrySet().parallelStream().forEach(entrada -> {
+            Lista<Ciudad> sedes = entrada.getValue();
+            Lista<Ciudad> itinerario = new ListaDinamica<>();
+            if (!sedes.estaVacia())
+                itinerario = copia.caminoMasCortoPasandoPor(sedes.recuperar(1),
+                        sedesIntermedias(sedes),
+                        sedes.recuperar(sedes.longitud()));
+            itinerarios.put(entrada.getKey(), itinerario);
+        });
+        return new HashMap<>(itinerarios);
+    }
+
+    /**
+     * @return las ciudades de los partidos del equipo ordenadas por ronda, las de una misma ronda en el orden en que
+     * se cargaron los partidos
+     */
+    private Lista<Ciudad> obtenerSedes(Equipo equipo) {
+        Lista<Ciudad> sedes = new ListaDinamica<>();
+        Lista<Partido> jugados = equipo.getPartidosJugados();
+
+        for (Ronda ronda : Ronda.values()) {
+            for (int i = 1; i <= jugados.longitud(); i++) {
+                if (jugados.recuperar(i).getRonda() == ronda)
+                    sedes.insertar(jugados.recuperar(i).getCiudad());
+            }
+        }
+        return sedes;
+    }
+
+    private static Lista<Ciudad> sedesIntermedias(Lista<Ciudad> sedes) {
+        Lista<Ciudad> intermedias = new ListaDinamica<>();
+        for (int i = 2; i < sedes.longitud(); i++)
+            intermedias.insertar(sedes.recuperar(i));
+        return intermedias;
+    }
+
+    /**
+     * Igual que matrizDistancias(origenes, destinos, siguientes) sin calcular las ciudades siguientes.
+     */
+    public int[][] matrizDistancias(Lista<String> origenes, Lista<String> destinos) {
+        return matrizDistancias(origenes, destinos, null);
+    }
+
+    /**
+     * Devuelve las distancias en km entre cada ciudad de origen y cada ciudad de destino. Se calcula sobre la copia
+     * publicada del mapa con una búsqueda por origen en paralelo, así que no bloquea las demás operaciones.
+     *
+     * @param origenes   nombres de las ciudades de origen, una fila por cada una
+     * @param destinos   nombres de las ciudades de destino, una columna por cada una
+     * @param siguientes si no es null, se completa con la ciudad que sigue al origen en el camino más corto hacia
+     *                   cada destino, null si no hay camino o el origen es el destino
+     * @return matriz de distancias, -1 si no hay camino o alguna de las ciudades no existe
+     */
+    public int[][] matrizDistancias(Lista<String> origenes, Lista<String> destinos, Ciudad[][] siguientes) {
+        return instantanea().matrizDistancias(aCiudades(origenes), aCiudades(destinos), siguientes);
+    }
+
+    private static Lista<Ciudad> aCiudades(Lista<String> nombres) {
+        Lista<Ciudad> lista = new ListaDinamica<>();
+        for (int i = 1; i <= nombres.longitud(); i++)
+            lista.insertar(new Ciudad(nombres.recuperar(i)));
+        return lista;
     }
 
     public synchronized Lista<Ciudad> listarCiudades() {
@@ -258,12 +682,20 @@ public class DataHelper implements Serializable {
         return equipos.listarDatosOrdenados();
     }
 
+    /**
+     * Le envía al consumidor cada equipo en el orden de los países, sin armar la lista de equipos.
+     */
+    public synchronized void recorrerEquipos(Consumer<Equipo> consumidor) {
+        equipos.iteradorDatos().forEachRemaining(consumidor);
+    }
+
     public synchronized Collection<Partido> getPartidos() {
         return partidos.values();
     }
 
-    public void vaciar() {
+    public synchronized void vaciar() {
         ciudades.vaciar();
+        mapaModificado();
         partidos.clear();
         equipos.vaciar();
     }
@@ -7,7 +7,10 @@ import modelos.Equipo;
 import modelos.Partido;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 
 public class FilesHelper {
     public static final String FILE_NAME = "datos.edat";
@@ -24,17 +27,67 @@ public class FilesHelper {
     }
 
     public synchronized void importData(DataHelper dataHelper, String fileName) throws IOException {
-        dataHelper.vaciar();
-        FileReader file = new FileReader(fileName);
-        BufferedReader bufferedReader = new BufferedReader(file);
-        String line;
-        int pos = 1;
-        while ((line = bufferedReader.readLine()) != null) {
-            readData(dataHelper, line, pos);
-            pos++;
+        // las consultas de caminos ven el mapa anterior hasta que termina la carga
+        dataHelper.iniciarCambios();
+        try {
+            dataHelper.vaciar();
+            FileReader file = new FileReader(fileName);
+            BufferedReader bufferedReader = new BufferedReader(file);
+            ArrayList<String> lineasEquipos = new ArrayList<>(); // equipos seguidos todavía sin cargar
+            String line;
+            int pos = 1;
+            while ((line = bufferedReader.readLine()) != null) {
+                if (!line.isEmpty() && line.charAt(0) == 'E') {
+                    lineasEquipos.add(line);
+                } else {
+                    cargarEquipos(dataHelper, lineasEquipos, pos - lineasEquipos.size());
+                    readData(dataHelper, line, pos);
+                }
+                pos++;
+            }
+            cargarEquipos(dataHelper, lineasEquipos, pos - lineasEquipos.size());
+            bufferedReader.close();
+            file.close();
+        } finally {
+            dataHelper.terminarCambios();
         }
-        bufferedReader.close();
-        file.close();
+    }
+
+    /**
+     * Carga las líneas de equipos seguidas. Si son válidas, no se repiten y todavía no hay equipos, las ordena por
+     * país y arma la tabla de equipos de una sola vez. Si no, las carga de a una con readData, que informa la línea
+     * con error igual que antes.
+     *
+     * @param primeraPos número de línea de la primera
+     */
+    private void cargarEquipos(DataHelper dataHelper, ArrayList<String> lineas, int primeraPos) throws IOException {
+        if (!lineas.isEmpty()) {
+            Equipo[] equipos = new Equipo[lineas.size()];
+            boolean cargados;
+            try {
+                for (int i = 0; i < equipos.length; i++)
+                    equipos[i] = leerEquipo(lineas.get(i));
+                Arrays.sort(equipos, Comparator.comparing(Equipo::getPais));
+                cargados = dataHelper.altaEquiposOrdenados(equipos);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) { // línea mal formada
+                cargados = false;
+            }
+            for (int i = 0; !cargados && i < lineas.size(); i++)
+                readData(dataHelper, lineas.get(i), primeraPos + i);
+            lineas.clear();
+        }
+    }
+
+    private static Equipo leerEquipo(String line) throws NumberFormatException, IndexOutOfBoundsException {
+        String[] datos = line.substring(3).split(";");
+        return DataHelper.crearEquipo(
+                datos[0].trim().toUpperCase(),
+                datos[1].trim().toUpperCase(),
+                datos[2].toUpperCase().trim(),
+                datos[3].trim().toUpperCase(),
+                datos[4].trim().toUpperCase(),
+                datos[5].trim().toUpperCase()
+        );
     }
 
     private synchronized void readData(DataHelper dataHelper, String line, int pos) throws IOException {
@@ -93,7 +146,6 @@ public class FilesHelper {
         BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
         Lista<Ciudad> ciudades = dataHelper.listarCiudades();
         Lista<Arco<Ciudad, Integer>> rutas = dataHelper.listarRutas();
-        Lista<Equipo> equipos = dataHelper.listarEquipos();
         Collection<Partido> partidos = dataHelper.getPartidos();
 
         StringBuilder sb = new StringBuilder();
@@ -106,15 +158,12 @@ public class FilesHelper {
                     .append(c.isSede()).append('\n');
         }
 
-        for (int i = 1; i <= equipos.longitud(); i++) {
-            Equipo e = equipos.recuperar(i);
-            sb.append("E: ").append(e.getPais()).append("; ")
-                    .append(e.getDirectorTecnico()).append("; ")
-                    .append(e.getGrupo()).append("; ")
-                    .append(e.getGolesAFavor()).append("; ")
-                    .append(e.getGolesEnContra()).append("; ")
-                    .append(e.getGolesEnContra()).append('\n');
-        }
+        dataHelper.recorrerEquipos(e -> sb.append("E: ").append(e.getPais()).append("; ")
+                .append(e.getDirectorTecnico()).append("; ")
+                .append(e.getGrupo()).append("; ")
+                .append(e.getGolesAFavor()).append("; ")
+                .append(e.getGolesEnContra()).append("; ")
+                .append(e.getGolesEnContra()).append('\n'));
 
         for (Partido p : partidos) {
             sb.append("P: ").append(p.getEquipoA().getPais()).append("; ")
@@ -135,6 +184,38 @@ public class FilesHelper {
         bufferedWriter.close();
     }
 
+    /**
+     * Escribe la matriz de distancias entre las ciudades con el mismo formato de líneas que exportData, una línea
+     * "D: origen; destino; km; siguiente" por cada par. Los pares sin camino llevan -1 y no tienen ciudad siguiente.
+     */
+    public synchronized void exportarMatrizDistancias(DataHelper dataHelper,
+                                                      Lista<String> origenes,
+                                                      Lista<String> destinos,
+                                                      String fileName) throws IOException {
+        Ciudad[][] siguientes = new Ciudad[origenes.longitud()][destinos.longitud()];
+        int[][] distancias = dataHelper.matrizDistancias(origenes, destinos, siguientes);
+        String[] nomOrigenes = new String[origenes.longitud()];
+        String[] nomDestinos = new String[destinos.longitud()];
+        for (int i = 0; i < nomOrigenes.length; i++)
+            nomOrigenes[i] = origenes.recuperar(i + 1);
+        for (int j = 0; j < nomDestinos.length; j++)
+            nomDestinos[j] = destinos.recuperar(j + 1);
+        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(fileName));
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < distancias.length; i++) {
+            for (int j = 0; j < distancias[i].length; j++) {
+                sb.append("D: ").append(nomOrigenes[i]).append("; ")
+                        .append(nomDestinos[j]).append("; ")
+                        .append(distancias[i][j]).append("; ")
+                        .append(siguientes[i][j] != null ? siguientes[i][j].getNombre() : "").append('\n');
+            }
+        }
+
+        bufferedWriter.write(sb.toString());
+        bufferedWriter.close();
+    }
+
     public synchronized void saveData(DataHelper dataHelper) throws IOException {
         File file = new File(FILE_NAME);
         ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(file));
@@ -122,6 +122,10 @@ public class Logger {
         write("Se mostraron todos los posibles caminos desde " + c1 + " hasta " + c2);
     }
 
+    public void mostrarCaminosMasCortos(String c1, String c2, int k) {
+        write("Se mostraron los " + k + " caminos mas cortos desde " + c1 + " hasta " + c2);
+    }
+
     public void mostrarCaminoMasCortoEntreCiudad(String c1, String c2, String c3) {
         write("Se mostro el camino con menos ciudades desde " + c1 + " por " + c2 + " hasta " + c3);
     }